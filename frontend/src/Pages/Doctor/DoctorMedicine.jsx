@@ -314,8 +314,20 @@ function DoctorMedicine() {
     };
 
     try {
-      await api.post("/api/prescriptions", payload);
-      alert("Prescription saved successfully");
+      const res = await api.post("/api/prescriptions", payload);
+
+      // Items the prescribed brand cannot cover come back with in-stock equivalents
+      const suggestions = res.data?.substituteSuggestions || {};
+      const lines = cart
+        .filter((item) => suggestions[item.id]?.length)
+        .map((item) =>
+          `${item.medicineName}: ${suggestions[item.id].map((s) => s.medicineName).join(", ")}`
+        );
+      alert(
+        lines.length
+          ? `Prescription saved successfully\n\nLow stock, in-stock equivalents:\n${lines.join("\n")}`
+          : "Prescription saved successfully"
+      );
     } catch (err) {
       console.error(err);
     }
@@ -396,7 +408,8 @@ function DoctorMedicine() {
                   Expiry:{" "}
                   {med.expiryDate ? new Date(med.expiryDate).toLocaleDateString("en-GB") : "N/A"}
                 </p>
-                <p className="desc">{med.description?.slice(0, 60)}...</p>
+                {/* List responses leave out the description; it comes with GET /api/medicines/{id} */}
+                {med.description && <p className="desc">{med.description.slice(0, 60)}...</p>}
 
                 <div className="card-footer">
                   <span className="price">₹{med.price}</span>
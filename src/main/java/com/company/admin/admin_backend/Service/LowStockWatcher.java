@@ -0,0 +1,93 @@
+package com.company.admin.admin_backend.Service;
+
+import com.company.admin.admin_backend.dto.MedicineDTO;
+import com.company.admin.admin_backend.event.MedicineCatalogLoadedEvent;
+import com.company.admin.admin_backend.event.MedicineChangedEvent;
+import com.company.admin.admin_backend.event.MedicineLowStockEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Live set of medicines at or below their own reorder level.
+ * Every stock change (catalog edits, bulk adjustments, dispensing) arrives as a
+ * MedicineChangedEvent; an event is raised only when a medicine crosses its level.
+ */
+@Component
+public class LowStockWatcher {
+
+    public static final int DEFAULT_REORDER_LEVEL = 10;
+
+    private final Map<Long, MedicineDTO> lowStock = new HashMap<>();
+    private final ApplicationEventPublisher eventPublisher;
+
+    private volatile boolean ready = false;
+
+    public LowStockWatcher(ApplicationEventPublisher eventPublisher) {
+        this.eventPublisher = eventPublisher;
+    }
+
+    // ================= EVENTS =================
+    @EventListener
+    public synchronized void onCatalogLoaded(MedicineCatalogLoadedEvent event) {
+        lowStock.clear();
+        for (MedicineDTO medicine : event.getMedicines()) {
+            if (isLow(medicine)) lowStock.put(medicine.getId(), medicine);
+        }
+        ready = true;
+    }
+
+    // Applied before MedicineCatalogVersion bumps the ETag, so the new ETag never serves the old count
+    @Order(MedicineCatalogVersion.READ_MODEL_ORDER)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onMedicineChanged(MedicineChangedEvent event) {
+        MedicineDTO after = event.getAfter();
+        boolean wasLow;
+        boolean nowLow = after != null && isLow(after);
+
+        synchronized (this) {
+            wasLow = lowStock.containsKey(event.getMedicineId());
+            if (nowLow) {
+                lowStock.put(event.getMedicineId(), after);
+            } else {
+                lowStock.remove(event.getMedicineId());
+            }
+        }
+
+        // Deleted medicines leave the set quietly; only real stock crossings are announced
+        if (after != null && wasLow != nowLow) {
+            eventPublisher.publishEvent(new MedicineLowStockEvent(after, nowLow));
+        }
+    }
+
+    // ================= READ =================
+    public boolean isReady() {
+        return ready;
+    }
+
+    public synchronized List<MedicineDTO> getLowStock() {
+        List<MedicineDTO> result = new ArrayList<>(lowStock.values());
+        result.sort(Comparator.comparing(MedicineDTO::getId));
+        return result;
+    }
+
+    public synchronized long count() {
+        return lowStock.size();
+    }
+
+    public static int reorderLevelOf(MedicineDTO medicine) {
+        return medicine.getReorderLevel() != null ? medicine.getReorderLevel() : DEFAULT_REORDER_LEVEL;
+    }
+
+    public static boolean isLow(MedicineDTO medicine) {
+        return medicine.getQuantity() != null && medicine.getQuantity() <= reorderLevelOf(medicine);
+    }
+}
@@ -0,0 +1,177 @@
+package com.company.admin.admin_backend.Service;
+
+import com.company.admin.admin_backend.dto.MedicineDTO;
+import com.company.admin.admin_backend.event.MedicineCatalogLoadedEvent;
+import com.company.admin.admin_backend.event.MedicineChangedEvent;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Supplier;
+
+/**
+ * Bounded read-through cache in front of MedicineRepository for the three hot reads:
+ * medicine by id, medicines by category and the full active list.
+ * Each region is LRU with a TTL; a catalog write evicts only the entries it touched.
+ */
+@Component
+public class MedicineCatalogCache {
+
+    private static final String ALL = "all";
+
+    private final Region<Long, MedicineDTO> byId;
+    private final Region<String, List<MedicineDTO>> byCategory;
+    private final Region<String, List<MedicineDTO>> allActive;
+
+    public MedicineCatalogCache(@Value("${medicine.cache.max-entries:10000}") int maxEntries,
+                                @Value("${medicine.cache.ttl-seconds:300}") long ttlSeconds) {
+        long ttlMillis = ttlSeconds * 1000;
+        this.byId = new Region<>(maxEntries, ttlMillis);
+        this.byCategory = new Region<>(Math.max(1, maxEntries / 100), ttlMillis);
+        this.allActive = new Region<>(1, ttlMillis);
+    }
+
+    // ================= READ-THROUGH =================
+    public MedicineDTO getById(Long id, Supplier<MedicineDTO> loader) {
+        return byId.get(id, loader);
+    }
+
+    public List<MedicineDTO> getByCategory(String category, Supplier<List<MedicineDTO>> loader) {
+        return byCategory.get(category, loader);
+    }
+
+    public List<MedicineDTO> getAllActive(Supplier<List<MedicineDTO>> loader) {
+        return allActive.get(ALL, loader);
+    }
+
+    // ================= INVALIDATION =================
+    @Order(MedicineCatalogVersion.READ_MODEL_ORDER)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onMedicineChanged(MedicineChangedEvent event) {
+        byId.evict(event.getMedicineId());
+
+        // A category move dirties both the old and the new category list
+        if (event.getBefore() != null) byCategory.evict(event.getBefore().getCategory());
+        if (event.getAfter() != null) byCategory.evict(event.getAfter().getCategory());
+
+        allActive.evict(ALL);
+    }
+
+    // A reloaded catalog (startup) can touch anything
+    @Order(MedicineCatalogVersion.READ_MODEL_ORDER)
+    @EventListener
+    public void onCatalogLoaded(MedicineCatalogLoadedEvent event) {
+        byId.clear();
+        byCategory.clear();
+        allActive.clear();
+    }
+
+    // ================= COUNTERS =================
+    public Map<String, Object> getCounters() {
+        Map<String, Object> counters = new LinkedHashMap<>();
+        counters.put("byId", byId.counters());
+        counters.put("byCategory", byCategory.counters());
+        counters.put("allActive", allActive.counters());
+        return counters;
+    }
+
+    /**
+     * One LRU + TTL cache region. Loads run outside the lock; a load that overlapped
+     * any eviction in the region is returned to its caller but not cached, so a
+     * pre-commit read can never be stored after the write that invalidated it.
+     */
+    static final class Region<K, V> {
+
+        private final int maxEntries;
+        private final long ttlMillis;
+        private final LinkedHashMap<K, Entry<V>> entries;
+
+        private long generation = 0;
+        private long hits = 0;
+        private long misses = 0;
+        private long evictions = 0;
+        private long expirations = 0;
+        private long invalidations = 0;
+
+        Region(int maxEntries, long ttlMillis) {
+            this.maxEntries = maxEntries;
+            this.ttlMillis = ttlMillis;
+            this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<K, Entry<V>> eldest) {
+                    if (size() > Region.this.maxEntries) {
+                        evictions++;
+                        return true;
+                    }
+                    return false;
+                }
+            };
+        }
+
+        V get(K key, Supplier<V> loader) {
+            long loadGeneration;
+            synchronized (this) {
+                Entry<V> entry = entries.get(key);
+                if (entry != null) {
+                    if (System.currentTimeMillis() < entry.expiresAt) {
+                        hits++;
+                        return entry.value;
+                    }
+                    entries.remove(key);
+                    expirations++;
+                }
+                misses++;
+                loadGeneration = generation;
+            }
+
+            V value = loader.get();
+
+            synchronized (this) {
+                if (value != null && generation == loadGeneration) {
+                    entries.put(key, new Entry<>(value, System.currentTimeMillis() + ttlMillis));
+                }
+            }
+            return value;
+        }
+
+        synchronized void evict(K key) {
+            generation++;
+            if (entries.remove(key) != null) invalidations++;
+        }
+
+        synchronized void clear() {
+            generation++;
+            invalidations += entries.size();
+            entries.clear();
+        }
+
+        synchronized Map<String, Object> counters() {
+            Map<String, Object> counters = new LinkedHashMap<>();
+            counters.put("size", entries.size());
+            counters.put("maxEntries", maxEntries);
+            counters.put("hits", hits);
+            counters.put("misses", misses);
+            counters.put("hitRatio", hits + misses == 0 ? 0.0 : (double) hits / (hits + misses));
+            counters.put("evictions", evictions);
+            counters.put("expirations", expirations);
+            counters.put("invalidations", invalidations);
+            return counters;
+        }
+
+        private static final class Entry<V> {
+            private final V value;
+            private final long expiresAt;
+
+            private Entry(V value, long expiresAt) {
+                this.value = Objects.requireNonNull(value);
+                this.expiresAt = expiresAt;
+            }
+        }
+    }
+}
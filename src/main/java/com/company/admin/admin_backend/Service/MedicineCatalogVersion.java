@@ -0,0 +1,63 @@
+package com.company.admin.admin_backend.Service;
+
+import com.company.admin.admin_backend.event.MedicineCatalogLoadedEvent;
+import com.company.admin.admin_backend.event.MedicineChangedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDate;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Write counter for the medicine catalog, used as ETag / Last-Modified on list endpoints.
+ * Bumped after every committed catalog write, so a matching If-None-Match can be
+ * answered with 304 before any query runs.
+ * Its listeners run last, after every read model ordered at READ_MODEL_ORDER has applied
+ * the same write, so a client that sees the new ETag never gets data from before it.
+ */
+@Component
+public class MedicineCatalogVersion {
+
+    // Caches and indexes that serve catalog reads apply a change before the version moves
+    public static final int READ_MODEL_ORDER = Ordered.LOWEST_PRECEDENCE - 100;
+
+    // Distinguishes counters across restarts: after a restart every client refetches once
+    private final String bootId = Long.toString(System.currentTimeMillis(), 36);
+
+    private final AtomicLong version = new AtomicLong();
+    private volatile long lastModified = System.currentTimeMillis();
+
+    @Order(Ordered.LOWEST_PRECEDENCE)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onMedicineChanged(MedicineChangedEvent event) {
+        version.incrementAndGet();
+        lastModified = System.currentTimeMillis();
+    }
+
+    // Startup snapshot: every structure has just been rebuilt from the table
+    @Order(Ordered.LOWEST_PRECEDENCE)
+    @EventListener
+    public void onCatalogLoaded(MedicineCatalogLoadedEvent event) {
+        version.incrementAndGet();
+        lastModified = System.currentTimeMillis();
+    }
+
+    public long getVersion() {
+        return version.get();
+    }
+
+    public long getLastModified() {
+        return lastModified;
+    }
+
+    /**
+     * Weak ETag for the catalog as of now. The date is part of it because the
+     * "expiring soon" figures in list responses change at midnight without a write.
+     */
+    public String getETag() {
+        return "W/\"" + bootId + "-" + version.get() + "-" + LocalDate.now() + "\"";
+    }
+}
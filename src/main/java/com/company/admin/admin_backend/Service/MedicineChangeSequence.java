@@ -0,0 +1,86 @@
+package com.company.admin.admin_backend.Service;
+
+import com.company.admin.admin_backend.entity.MedicineChangeCounter;
+import com.company.admin.admin_backend.event.MedicineCatalogLoadedEvent;
+import com.company.admin.admin_backend.event.MedicineChangedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.TreeSet;
+
+/**
+ * Stamps every medicine a transaction changed (deletes included) with one change sequence
+ * number, just before that transaction commits. Taking the number locks the counter row until
+ * the commit ends, so numbers become visible in the order they were taken: once a reader sees
+ * number N, every change numbered below N is already committed and a (change_seq, id)
+ * watermark never skips one, however long the transaction ran before committing.
+ */
+@Service
+public class MedicineChangeSequence {
+
+    // Late among the pre-commit batches, so the counter row stays locked for as short a time as
+    // possible; only the stock ledger writes after it, under the same lock
+    static final int STAMP_ORDER = Ordered.LOWEST_PRECEDENCE - 1;
+
+    // Rows from before the sequence existed default to 0, so numbering starts above them
+    private static final String SEED_COUNTER_SQL =
+            "INSERT INTO medicine_change_counter (id, last_seq) " +
+            "SELECT ?, 0 FROM DUAL " +
+            "WHERE NOT EXISTS (SELECT 1 FROM medicine_change_counter WHERE id = ?)";
+
+    private static final String NEXT_SEQ_SQL =
+            "UPDATE medicine_change_counter SET last_seq = last_seq + 1 WHERE id = ?";
+
+    private static final String CURRENT_SEQ_SQL =
+            "SELECT last_seq FROM medicine_change_counter WHERE id = ?";
+
+    private static final String STAMP_SQL =
+            "UPDATE medicines SET change_seq = ? WHERE id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final TransactionBatch<Long> changed;
+
+    public MedicineChangeSequence(JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.changed = new TransactionBatch<>(STAMP_ORDER, this::stamp);
+    }
+
+    // ================= EVENTS =================
+    @EventListener
+    public void onCatalogLoaded(MedicineCatalogLoadedEvent event) {
+        jdbcTemplate.update(SEED_COUNTER_SQL, MedicineChangeCounter.ROW_ID, MedicineChangeCounter.ROW_ID);
+    }
+
+    // Runs inside the writing transaction, so the stamp commits or rolls back with the change
+    @EventListener
+    public void onMedicineChanged(MedicineChangedEvent event) {
+        changed.add(event.getMedicineId());
+    }
+
+    // ================= STAMP =================
+    private void stamp(List<Long> medicineIds) {
+        if (!TransactionSynchronizationManager.isActualTransactionActive()) {
+            // Take and use the number in one transaction, or a later number could commit first
+            transactionTemplate.executeWithoutResult(status -> stamp(medicineIds));
+            return;
+        }
+
+        if (jdbcTemplate.update(NEXT_SEQ_SQL, MedicineChangeCounter.ROW_ID) == 0) {
+            throw new IllegalStateException("Medicine change counter has not been seeded");
+        }
+        Long seq = jdbcTemplate.queryForObject(CURRENT_SEQ_SQL, Long.class, MedicineChangeCounter.ROW_ID);
+
+        // Ascending ids, so concurrent stamps lock medicine rows in the same order
+        List<Object[]> rows = new TreeSet<>(medicineIds).stream()
+                .map(id -> new Object[]{seq, id})
+                .toList();
+        jdbcTemplate.batchUpdate(STAMP_SQL, rows);
+    }
+}
@@ -0,0 +1,121 @@
+package com.company.admin.admin_backend.Service;
+
+import com.company.admin.admin_backend.dto.MedicineDTO;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Opaque keyset cursor for medicine list pages and delta-sync watermarks: the sort
+ * column value and id of the last row served. Clients only ever echo back the encoded string.
+ */
+public final class MedicineCursor {
+
+    public static final String BY_ID = "id";
+    public static final String BY_NAME = "name";
+    public static final String BY_PRICE = "price";
+    public static final String BY_QUANTITY = "quantity";
+    // Delta-sync watermark: (changeSeq, id) of the last change handed out
+    public static final String BY_CHANGE_SEQ = "changeSeq";
+
+    private final String sortBy;
+    private final String value;
+    private final Long id;
+
+    private MedicineCursor(String sortBy, String value, Long id) {
+        this.sortBy = sortBy;
+        this.value = value;
+        this.id = id;
+    }
+
+    // Maps the public sortBy parameter onto a supported keyset column
+    public static String sortKey(String sortBy) {
+        if (BY_NAME.equals(sortBy) || BY_PRICE.equals(sortBy) || BY_QUANTITY.equals(sortBy)) {
+            return sortBy;
+        }
+        return BY_ID;
+    }
+
+    // Position before the first row for the given sort
+    public static MedicineCursor start(String sortBy) {
+        switch (sortBy) {
+            case BY_NAME:
+                return new MedicineCursor(sortBy, "", 0L);
+            case BY_PRICE:
+                return new MedicineCursor(sortBy, String.valueOf(-Double.MAX_VALUE), 0L);
+            case BY_QUANTITY:
+                return new MedicineCursor(sortBy, String.valueOf(Integer.MIN_VALUE), 0L);
+            default:
+                return new MedicineCursor(sortBy, "", 0L);
+        }
+    }
+
+    public static MedicineCursor after(String sortBy, MedicineDTO last) {
+        switch (sortBy) {
+            case BY_NAME:
+                return new MedicineCursor(sortBy, last.getMedicineName(), last.getId());
+            case BY_PRICE:
+                return new MedicineCursor(sortBy, String.valueOf(last.getPrice()), last.getId());
+            case BY_QUANTITY:
+                return new MedicineCursor(sortBy, String.valueOf(last.getQuantity()), last.getId());
+            default:
+                return new MedicineCursor(sortBy, "", last.getId());
+        }
+    }
+
+    public static MedicineCursor changeSeq(Long changeSeq, Long id) {
+        return new MedicineCursor(BY_CHANGE_SEQ, String.valueOf(changeSeq), id);
+    }
+
+    public static MedicineCursor decode(String encoded, String sortBy) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(encoded), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\n", 3);
+
+            if (parts.length != 3 || !parts[0].equals(sortBy)) {
+                throw new IllegalArgumentException("cursor does not match sortBy");
+            }
+
+            MedicineCursor cursor = new MedicineCursor(parts[0], parts[2], Long.parseLong(parts[1]));
+            // Fail here rather than in the query if the value was tampered with
+            if (BY_PRICE.equals(sortBy)) cursor.getPrice();
+            if (BY_QUANTITY.equals(sortBy)) cursor.getQuantity();
+            if (BY_CHANGE_SEQ.equals(sortBy)) cursor.getChangeSeq();
+            return cursor;
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid cursor");
+        }
+    }
+
+    public String encode() {
+        String raw = sortBy + "\n" + id + "\n" + value;
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public String getSortBy() {
+        return sortBy;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getName() {
+        return value;
+    }
+
+    public Double getPrice() {
+        return Double.valueOf(value);
+    }
+
+    public Integer getQuantity() {
+        return Integer.valueOf(value);
+    }
+
+    public Long getChangeSeq() {
+        return Long.valueOf(value);
+    }
+}
@@ -0,0 +1,191 @@
+package com.company.admin.admin_backend.Service;
+
+import com.company.admin.admin_backend.dto.MedicineDTO;
+import com.company.admin.admin_backend.event.MedicineCatalogLoadedEvent;
+import com.company.admin.admin_backend.event.MedicineChangedEvent;
+import com.company.admin.admin_backend.event.MedicineExpiryAlertEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+/**
+ * Non-deleted medicines bucketed by expiry day. "Expiring within N days" reads at most
+ * N + 1 buckets, and a daily tick only reads the buckets that crossed a 30/7/0-day mark
+ * since the last tick to raise MedicineExpiryAlertEvents.
+ */
+@Component
+public class MedicineExpiryCalendar {
+
+    public static final int[] ALERT_MARKS = {30, 7, 0};
+
+    private final TreeMap<LocalDate, Map<Long, MedicineDTO>> buckets = new TreeMap<>();
+    private final Map<Long, LocalDate> expiryById = new HashMap<>();
+    private final ApplicationEventPublisher eventPublisher;
+
+    private volatile boolean ready = false;
+
+    // Last day the alerts have been raised for; null until the first run after startup
+    private LocalDate alertedThrough;
+
+    public MedicineExpiryCalendar(ApplicationEventPublisher eventPublisher) {
+        this.eventPublisher = eventPublisher;
+    }
+
+    // ================= EVENTS =================
+    @Order(MedicineCatalogVersion.READ_MODEL_ORDER)
+    @EventListener
+    public void onCatalogLoaded(MedicineCatalogLoadedEvent event) {
+        synchronized (this) {
+            buckets.clear();
+            expiryById.clear();
+            for (MedicineDTO medicine : event.getMedicines()) {
+                put(medicine);
+            }
+            ready = true;
+        }
+        // Catches up on the marks crossed while the application was down
+        raiseAlerts(LocalDate.now());
+    }
+
+    @Order(MedicineCatalogVersion.READ_MODEL_ORDER)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onMedicineChanged(MedicineChangedEvent event) {
+        MedicineDTO after = event.getAfter();
+        LocalDate previousExpiry;
+
+        synchronized (this) {
+            previousExpiry = remove(event.getMedicineId());
+            if (after != null) put(after);
+        }
+
+        // New stock, or a changed date, that already sits inside an alert window
+        if (after != null && after.getExpiryDate() != null
+                && !after.getExpiryDate().equals(previousExpiry)) {
+            long daysLeft = ChronoUnit.DAYS.between(LocalDate.now(), after.getExpiryDate());
+            Integer mark = tightestMark(daysLeft);
+            if (mark != null) {
+                eventPublisher.publishEvent(new MedicineExpiryAlertEvent(after, mark, daysLeft));
+            }
+        }
+    }
+
+    @Scheduled(cron = "0 5 0 * * *")
+    public void raiseDailyAlerts() {
+        raiseAlerts(LocalDate.now());
+    }
+
+    /**
+     * Raises an alert for every medicine that crossed a mark since the last run, at the tightest
+     * mark it is now inside: a missed run delays alerts, it never loses them. The first run after
+     * startup takes everything already inside a window; StockAlertService keeps each alert once.
+     */
+    void raiseAlerts(LocalDate today) {
+        Map<Long, MedicineDTO> crossed = new LinkedHashMap<>();
+
+        synchronized (this) {
+            if (alertedThrough != null && !today.isAfter(alertedThrough)) return;
+            for (int mark : ALERT_MARKS) {
+                LocalDate reached = today.plusDays(mark);
+                NavigableMap<LocalDate, Map<Long, MedicineDTO>> band = alertedThrough == null
+                        ? buckets.headMap(reached, true)
+                        : buckets.subMap(alertedThrough.plusDays(mark), false, reached, true);
+                for (Map<Long, MedicineDTO> bucket : band.values()) {
+                    bucket.values().forEach(medicine -> crossed.putIfAbsent(medicine.getId(), medicine));
+                }
+            }
+            alertedThrough = today;
+        }
+
+        for (MedicineDTO medicine : crossed.values()) {
+            long daysLeft = ChronoUnit.DAYS.between(today, medicine.getExpiryDate());
+            eventPublisher.publishEvent(new MedicineExpiryAlertEvent(medicine, tightestMark(daysLeft), daysLeft));
+        }
+    }
+
+    // ================= READ =================
+    public boolean isReady() {
+        return ready;
+    }
+
+    // Medicines expiring between today and today + days (inclusive), soonest first
+    public synchronized List<MedicineDTO> expiringWithin(int days) {
+        List<MedicineDTO> result = new ArrayList<>();
+        for (Map<Long, MedicineDTO> bucket : window(days).values()) {
+            List<MedicineDTO> day = new ArrayList<>(bucket.values());
+            day.sort(Comparator.comparing(MedicineDTO::getId));
+            result.addAll(day);
+        }
+        return result;
+    }
+
+    public synchronized long countExpiringWithin(int days) {
+        long count = 0;
+        for (Map<Long, MedicineDTO> bucket : window(days).values()) {
+            count += bucket.size();
+        }
+        return count;
+    }
+
+    // Medicines expiring in [from, to]; a null bound leaves that side open
+    public synchronized long countExpiringBetween(LocalDate from, LocalDate to) {
+        NavigableMap<LocalDate, Map<Long, MedicineDTO>> range = buckets;
+        if (from != null) range = range.tailMap(from, true);
+        if (to != null) range = range.headMap(to, true);
+
+        long count = 0;
+        for (Map<Long, MedicineDTO> bucket : range.values()) {
+            count += bucket.size();
+        }
+        return count;
+    }
+
+    // ================= INTERNAL =================
+    private NavigableMap<LocalDate, Map<Long, MedicineDTO>> window(int days) {
+        LocalDate today = LocalDate.now();
+        if (days < 0) return new TreeMap<>();
+        return buckets.subMap(today, true, today.plusDays(days), true);
+    }
+
+    private void put(MedicineDTO medicine) {
+        LocalDate expiry = medicine.getExpiryDate();
+        if (expiry == null) return;
+
+        buckets.computeIfAbsent(expiry, d -> new LinkedHashMap<>()).put(medicine.getId(), medicine);
+        expiryById.put(medicine.getId(), expiry);
+    }
+
+    private LocalDate remove(Long id) {
+        LocalDate expiry = expiryById.remove(id);
+        if (expiry == null) return null;
+
+        Map<Long, MedicineDTO> bucket = buckets.get(expiry);
+        if (bucket != null) {
+            bucket.remove(id);
+            if (bucket.isEmpty()) buckets.remove(expiry);
+        }
+        return expiry;
+    }
+
+    // 5 days left -> the 7-day mark; already expired -> the 0-day mark
+    private static Integer tightestMark(long daysLeft) {
+        Integer mark = null;
+        for (int m : ALERT_MARKS) {
+            if (daysLeft <= m) mark = m;
+        }
+        return mark;
+    }
+}
@@ -0,0 +1,160 @@
+package com.company.admin.admin_backend.Service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Streams the active catalog for audits as CSV or NDJSON. Rows come from a forward-only,
+ * read-only result set in the MySQL driver's streaming mode and are written as they arrive,
+ * so heap use does not grow with the catalog. The CSV header matches the import format,
+ * so an export can be re-imported as is.
+ */
+@Service
+public class MedicineExportService {
+
+    // Connector/J streams row by row for this fetch size; a positive size would need
+    // useCursorFetch, which turns every statement into a server-side prepare
+    private static final int STREAMING_FETCH_SIZE = Integer.MIN_VALUE;
+    private static final int FLUSH_EVERY_ROWS = 1000;
+
+    // Output field name -> column, in export order
+    private static final String[][] FIELDS = {
+            {"id", "id"},
+            {"medicineName", "medicine_name"},
+            {"genericName", "generic_name"},
+            {"manufacturer", "manufacturer"},
+            {"quantity", "quantity"},
+            {"reorderLevel", "reorder_level"},
+            {"price", "price"},
+            {"category", "category"},
+            {"dosageForm", "dosage_form"},
+            {"expiryDate", "expiry_date"},
+            {"batchNumber", "batch_number"},
+            {"strength", "strength"},
+            {"storageCondition", "storage_condition"},
+            {"prescriptionRequired", "prescription_required"},
+            {"description", "description"},
+            {"createdAt", "created_at"},
+            {"updatedAt", "updated_at"}
+    };
+
+    private static final String SELECT_SQL = buildSelect();
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    public MedicineExportService(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    // ================= EXPORT =================
+    public void exportCsv(OutputStream output) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8));
+
+        StringBuilder header = new StringBuilder();
+        for (int i = 0; i < FIELDS.length; i++) {
+            if (i > 0) header.append(',');
+            header.append(FIELDS[i][0]);
+        }
+        writer.write(header.append("\r\n").toString());
+
+        stream(writer, rs -> {
+            StringBuilder line = new StringBuilder(256);
+            for (int i = 0; i < FIELDS.length; i++) {
+                if (i > 0) line.append(',');
+                line.append(csvField(value(rs, i + 1)));
+            }
+            return line.append("\r\n").toString();
+        });
+    }
+
+    public void exportNdjson(OutputStream output) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8));
+
+        stream(writer, rs -> {
+            Map<String, Object> row = new LinkedHashMap<>();
+            for (int i = 0; i < FIELDS.length; i++) {
+                row.put(FIELDS[i][0], value(rs, i + 1));
+            }
+            try {
+                return objectMapper.writeValueAsString(row) + "\n";
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    // ================= CURSOR =================
+    private void stream(Writer writer, RowFormatter formatter) throws IOException {
+        long[] rows = {0};
+        try {
+            jdbcTemplate.query(con -> {
+                PreparedStatement ps = con.prepareStatement(
+                        SELECT_SQL, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+                ps.setFetchSize(STREAMING_FETCH_SIZE);
+                return ps;
+            }, (RowCallbackHandler) rs -> {
+                try {
+                    writer.write(formatter.format(rs));
+                    // Push rows to the client in blocks instead of buffering the response
+                    if (++rows[0] % FLUSH_EVERY_ROWS == 0) writer.flush();
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            // Client went away mid-export: surface the I/O error, the cursor is already closed
+            throw e.getCause();
+        }
+        writer.flush();
+    }
+
+    // Dates and timestamps as ISO strings, everything else as the driver returns it
+    private static Object value(ResultSet rs, int column) throws SQLException {
+        Object value = rs.getObject(column);
+        if (value instanceof Date date) return date.toLocalDate().toString();
+        if (value instanceof Timestamp timestamp) return timestamp.toLocalDateTime().toString();
+        return value;
+    }
+
+    // RFC 4180: quote when the value holds a comma, quote or line break; double inner quotes
+    private static String csvField(Object value) {
+        if (value == null) return "";
+        String text = value.toString();
+        if (text.indexOf(',') < 0 && text.indexOf('"') < 0 && text.indexOf('\n') < 0 && text.indexOf('\r') < 0) {
+            return text;
+        }
+        return '"' + text.replace("\"", "\"\"") + '"';
+    }
+
+    private static String buildSelect() {
+        StringBuilder sql = new StringBuilder("SELECT ");
+        for (int i = 0; i < FIELDS.length; i++) {
+            if (i > 0) sql.append(", ");
+            sql.append(FIELDS[i][1]);
+        }
+        return sql.append(" FROM medicines WHERE is_deleted = false ORDER BY id").toString();
+    }
+
+    @FunctionalInterface
+    private interface RowFormatter {
+        String format(ResultSet rs) throws SQLException;
+    }
+}
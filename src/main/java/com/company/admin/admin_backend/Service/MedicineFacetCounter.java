@@ -0,0 +1,104 @@
+package com.company.admin.admin_backend.Service;
+
+import com.company.admin.admin_backend.dto.MedicineDTO;
+import com.company.admin.admin_backend.dto.MedicineFacetsDTO;
+
+import java.time.LocalDate;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Running counts per filter value for the catalog facets. Fed one medicine at a time
+ * (incrementally by MedicineStatsTracker, or in one pass over search hits) or one
+ * grouped SQL row at a time.
+ */
+final class MedicineFacetCounter {
+
+    static final String UNSPECIFIED = "Unspecified";
+
+    static final String EXPIRED = "expired";
+    static final String WITHIN_30_DAYS = "within30Days";
+    static final String WITHIN_90_DAYS = "within90Days";
+    static final String LATER = "later";
+
+    private long total;
+    private final Map<String, Long> category = new HashMap<>();
+    private final Map<String, Long> dosageForm = new HashMap<>();
+    private final Map<String, Long> manufacturer = new HashMap<>();
+    private final Map<String, Long> prescriptionRequired = new HashMap<>();
+    private final Map<String, Long> expiry = new HashMap<>();
+
+    // Expiry buckets are relative to today; pass null when they are counted elsewhere
+    void add(MedicineDTO medicine, long count, LocalDate today) {
+        add(medicine.getCategory(), medicine.getDosageForm(), medicine.getManufacturer(),
+                medicine.getPrescriptionRequired(),
+                today == null ? null : expiryBucket(medicine.getExpiryDate(), today),
+                count);
+    }
+
+    void add(String category, String dosageForm, String manufacturer,
+             Boolean prescriptionRequired, String expiryBucket, long count) {
+        total += count;
+        bump(this.category, label(category), count);
+        bump(this.dosageForm, label(dosageForm), count);
+        bump(this.manufacturer, label(manufacturer), count);
+        bump(this.prescriptionRequired, String.valueOf(Boolean.TRUE.equals(prescriptionRequired)), count);
+        if (expiryBucket != null) bump(expiry, expiryBucket, count);
+    }
+
+    void clear() {
+        total = 0;
+        category.clear();
+        dosageForm.clear();
+        manufacturer.clear();
+        prescriptionRequired.clear();
+        expiry.clear();
+    }
+
+    MedicineFacetsDTO toDTO() {
+        return toDTO(expiry);
+    }
+
+    MedicineFacetsDTO toDTO(Map<String, Long> expiryCounts) {
+        Map<String, Long> expiryFacet = new LinkedHashMap<>();
+        for (String bucket : new String[]{EXPIRED, WITHIN_30_DAYS, WITHIN_90_DAYS, LATER}) {
+            expiryFacet.put(bucket, expiryCounts.getOrDefault(bucket, 0L));
+        }
+        return new MedicineFacetsDTO(total, ranked(category), ranked(dosageForm),
+                ranked(manufacturer), ranked(prescriptionRequired), expiryFacet);
+    }
+
+    static String expiryBucket(LocalDate expiryDate, LocalDate today) {
+        if (expiryDate == null) return LATER;
+        if (expiryDate.isBefore(today)) return EXPIRED;
+        if (!expiryDate.isAfter(today.plusDays(30))) return WITHIN_30_DAYS;
+        if (!expiryDate.isAfter(today.plusDays(90))) return WITHIN_90_DAYS;
+        return LATER;
+    }
+
+    private static String label(String value) {
+        return value == null || value.isBlank() ? UNSPECIFIED : value;
+    }
+
+    private static void bump(Map<String, Long> counts, String key, long count) {
+        long next = counts.getOrDefault(key, 0L) + count;
+        if (next == 0) {
+            counts.remove(key);
+        } else {
+            counts.put(key, next);
+        }
+    }
+
+    // Biggest chip first, ties alphabetical
+    private static Map<String, Long> ranked(Map<String, Long> counts) {
+        Map<String, Long> result = new LinkedHashMap<>();
+        counts.entrySet()
+                .stream()
+                .sorted(Map.Entry.<String, Long>comparingByValue(Comparator.reverseOrder())
+                        .thenComparing(Map.Entry.comparingByKey()))
+                .forEach(e -> result.put(e.getKey(), e.getValue()));
+        return result;
+    }
+}
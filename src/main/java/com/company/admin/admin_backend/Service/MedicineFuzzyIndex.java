@@ -0,0 +1,394 @@
+package com.company.admin.admin_backend.Service;
+
+import com.company.admin.admin_backend.dto.MedicineDTO;
+import com.company.admin.admin_backend.event.MedicineCatalogLoadedEvent;
+import com.company.admin.admin_backend.event.MedicineChangedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Typo-tolerant lookup over the words of medicineName and genericName.
+ * Distinct words live in BK-trees keyed by Levenshtein distance, one per word length, so a
+ * query word only compares against words of a length within its allowed distance and, in
+ * those, only the branches that can still be within it.
+ */
+@Component
+public class MedicineFuzzyIndex {
+
+    private static final int MIN_WORD = 3;
+
+    private final Map<Long, Entry> entries = new HashMap<>();
+    private final Map<String, Set<Entry>> postings = new HashMap<>();
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private BkTree tree = new BkTree();
+    // Words still in the tree that no medicine uses any more
+    private int deadWords = 0;
+    private volatile boolean ready = false;
+
+    // ================= EVENTS =================
+    @Order(MedicineCatalogVersion.READ_MODEL_ORDER)
+    @EventListener
+    public void onCatalogLoaded(MedicineCatalogLoadedEvent event) {
+        rebuild(event.getMedicines());
+    }
+
+    @Order(MedicineCatalogVersion.READ_MODEL_ORDER)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onMedicineChanged(MedicineChangedEvent event) {
+        if (event.isDelete()) {
+            remove(event.getMedicineId());
+        } else {
+            put(event.getAfter());
+        }
+    }
+
+    // ================= WRITE =================
+    public void rebuild(Collection<MedicineDTO> medicines) {
+        lock.writeLock().lock();
+        try {
+            entries.clear();
+            postings.clear();
+            for (MedicineDTO medicine : medicines) {
+                index(medicine);
+            }
+            tree = BkTree.of(postings.keySet());
+            deadWords = 0;
+            ready = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void put(MedicineDTO medicine) {
+        lock.writeLock().lock();
+        try {
+            unindex(medicine.getId());
+            for (String word : index(medicine)) {
+                if (tree.add(word)) continue;
+                // Word was dead and is back in use
+                if (postings.get(word).size() == 1) deadWords = Math.max(0, deadWords - 1);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(Long id) {
+        lock.writeLock().lock();
+        try {
+            unindex(id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // ================= READ =================
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Medicines whose names contain, for every query word, a word within its allowed
+     * edit distance, best `limit` first (see Candidate.RANK).
+     */
+    public List<MedicineDTO> search(String query, int limit) {
+        List<String> words = new ArrayList<>(words(query));
+        if (words.isEmpty()) return List.of();
+
+        lock.readLock().lock();
+        try {
+            // Best distance per medicine for each query word; a medicine must match them all
+            Map<Entry, Integer> total = null;
+            for (String word : words) {
+                Map<Entry, Integer> best = new HashMap<>();
+                tree.search(word, maxDistance(word), (match, distance) -> {
+                    Set<Entry> hits = postings.get(match);
+                    if (hits == null) return;
+                    for (Entry entry : hits) best.merge(entry, distance, Math::min);
+                });
+
+                if (total == null) {
+                    total = best;
+                } else {
+                    total.keySet().retainAll(best.keySet());
+                    for (Map.Entry<Entry, Integer> hit : total.entrySet()) {
+                        hit.setValue(hit.getValue() + best.get(hit.getKey()));
+                    }
+                }
+                if (total.isEmpty()) return List.of();
+            }
+
+            // Keep only the best `limit` in a bounded heap: a common generic can match thousands
+            int queryLength = normalize(query).trim().length();
+            PriorityQueue<Candidate> top = new PriorityQueue<>(limit + 1, Candidate.RANK.reversed());
+            for (Map.Entry<Entry, Integer> hit : total.entrySet()) {
+                Entry entry = hit.getKey();
+                int distance = hit.getValue();
+                int lengthGap = Math.abs(entry.name.length() - queryLength);
+                // Most hits of a broad generic lose on distance or length alone: no candidate for them
+                if (top.size() == limit && top.peek().ranksBefore(distance, lengthGap)) continue;
+
+                Candidate candidate = new Candidate(entry, distance, lengthGap);
+                if (top.size() == limit && Candidate.RANK.compare(candidate, top.peek()) >= 0) continue;
+                top.add(candidate);
+                if (top.size() > limit) top.poll();
+            }
+
+            List<MedicineDTO> result = new ArrayList<>(top.size());
+            top.stream().sorted(Candidate.RANK).forEach(c -> result.add(c.entry.medicine));
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // ================= INTERNAL =================
+    // Short words tolerate one typo, longer ones two; words with digits (strengths) must match exactly
+    static int maxDistance(String word) {
+        for (int i = 0; i < word.length(); i++) {
+            if (Character.isDigit(word.charAt(i))) return 0;
+        }
+        return word.length() <= 4 ? 1 : 2;
+    }
+
+    private Set<String> index(MedicineDTO medicine) {
+        Set<String> words = new LinkedHashSet<>(words(medicine.getMedicineName()));
+        words.addAll(words(medicine.getGenericName()));
+
+        Entry entry = new Entry(medicine, words);
+        entries.put(medicine.getId(), entry);
+        for (String word : words) {
+            postings.computeIfAbsent(word, k -> new HashSet<>()).add(entry);
+        }
+        return words;
+    }
+
+    private void unindex(Long id) {
+        Entry existing = entries.remove(id);
+        if (existing == null) return;
+
+        for (String word : existing.words) {
+            Set<Entry> hits = postings.get(word);
+            if (hits != null) {
+                hits.remove(existing);
+                if (hits.isEmpty()) {
+                    postings.remove(word);
+                    deadWords++;
+                }
+            }
+        }
+
+        // BK-trees cannot drop a node cheaply; rebuild once dead words outnumber live ones
+        if (deadWords > postings.size()) {
+            tree = BkTree.of(postings.keySet());
+            deadWords = 0;
+        }
+    }
+
+    private static Set<String> words(String value) {
+        Set<String> words = new LinkedHashSet<>();
+        for (String word : normalize(value).split("[^\\p{L}\\p{N}]+")) {
+            if (word.length() >= MIN_WORD) words.add(word);
+        }
+        return words;
+    }
+
+    private static String normalize(String value) {
+        return value == null ? "" : value.toLowerCase(Locale.ROOT);
+    }
+
+    static int levenshtein(String a, String b) {
+        int[] previous = new int[b.length() + 1];
+        int[] current = new int[b.length() + 1];
+        for (int j = 0; j <= b.length(); j++) previous[j] = j;
+
+        for (int i = 1; i <= a.length(); i++) {
+            current[0] = i;
+            for (int j = 1; j <= b.length(); j++) {
+                int cost = a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1;
+                current[j] = Math.min(Math.min(current[j - 1] + 1, previous[j] + 1), previous[j - 1] + cost);
+            }
+            int[] swap = previous;
+            previous = current;
+            current = swap;
+        }
+        return previous[b.length()];
+    }
+
+    private static final class Entry {
+        private final MedicineDTO medicine;
+        private final String name;
+        private final Set<String> words;
+
+        private Entry(MedicineDTO medicine, Set<String> words) {
+            this.medicine = medicine;
+            this.name = normalize(medicine.getMedicineName());
+            this.words = words;
+        }
+    }
+
+    // Total distance, then names closest in length to the query (fewest unmatched extras), then name and id
+    private static final class Candidate {
+        private static final Comparator<Candidate> RANK = Comparator
+                .comparingInt((Candidate c) -> c.distance)
+                .thenComparingInt(c -> c.lengthGap)
+                .thenComparing(c -> c.entry.name)
+                .thenComparing(c -> c.entry.medicine.getId());
+
+        private final Entry entry;
+        private final int distance;
+        private final int lengthGap;
+
+        private Candidate(Entry entry, int distance, int lengthGap) {
+            this.entry = entry;
+            this.distance = distance;
+            this.lengthGap = lengthGap;
+        }
+
+        private boolean ranksBefore(int otherDistance, int otherLengthGap) {
+            return distance != otherDistance ? distance < otherDistance : lengthGap < otherLengthGap;
+        }
+    }
+
+    /**
+     * A word prepared for Myers' bit-parallel edit distance: one bit per character position,
+     * so each character of the other word costs a few word operations instead of a DP row.
+     * The query word is prepared once and measured against every node a search visits.
+     */
+    static final class Pattern {
+
+        static final int MAX_LENGTH = Long.SIZE;
+
+        private final String word;
+        private final long[] ascii = new long[128];
+        private final Map<Character, Long> other = new HashMap<>();
+
+        Pattern(String word) {
+            this.word = word;
+            for (int i = 0; i < word.length(); i++) {
+                char c = word.charAt(i);
+                if (c < ascii.length) {
+                    ascii[c] |= 1L << i;
+                } else {
+                    other.merge(c, 1L << i, (x, y) -> x | y);
+                }
+            }
+        }
+
+        int distance(String text) {
+            int m = word.length();
+            if (m == 0) return text.length();
+            if (m > MAX_LENGTH) return levenshtein(word, text);
+
+            long last = 1L << (m - 1);
+            long pv = -1L;
+            long mv = 0L;
+            int score = m;
+            for (int j = 0; j < text.length(); j++) {
+                char c = text.charAt(j);
+                long eq = c < ascii.length ? ascii[c] : other.getOrDefault(c, 0L);
+                long xv = eq | mv;
+                long xh = (((eq & pv) + pv) ^ pv) | eq;
+                long ph = mv | ~(xh | pv);
+                long mh = pv & xh;
+                if ((ph & last) != 0) {
+                    score++;
+                } else if ((mh & last) != 0) {
+                    score--;
+                }
+                ph = (ph << 1) | 1L;
+                mh = mh << 1;
+                pv = mh | ~(xv | ph);
+                mv = ph & xv;
+            }
+            return score;
+        }
+    }
+
+    interface MatchConsumer {
+        void accept(String word, int distance);
+    }
+
+    /**
+     * Burkhard-Keller tree: each child hangs off its parent by their edit distance, so by the
+     * triangle inequality only children at distance d - k .. d + k can hold matches. Words are
+     * first split by length: an edit distance is never below the length difference, so a search
+     * only walks the trees of lengths within k of the query word's.
+     */
+    static final class BkTree {
+
+        private final Map<Integer, Node> roots = new HashMap<>();
+
+        static BkTree of(Collection<String> words) {
+            BkTree tree = new BkTree();
+            for (String word : words) tree.add(word);
+            return tree;
+        }
+
+        // Returns false when the word was already present
+        boolean add(String word) {
+            Node node = roots.get(word.length());
+            if (node == null) {
+                roots.put(word.length(), new Node(word));
+                return true;
+            }
+            Pattern pattern = new Pattern(word);
+            while (true) {
+                int distance = pattern.distance(node.word);
+                if (distance == 0) return false;
+                Node child = node.children.get(distance);
+                if (child == null) {
+                    node.children.put(distance, new Node(word));
+                    return true;
+                }
+                node = child;
+            }
+        }
+
+        void search(String word, int maxDistance, MatchConsumer consumer) {
+            Pattern pattern = new Pattern(word);
+            List<Node> pending = new ArrayList<>();
+            for (int length = word.length() - maxDistance; length <= word.length() + maxDistance; length++) {
+                Node root = roots.get(length);
+                if (root != null) pending.add(root);
+            }
+            while (!pending.isEmpty()) {
+                Node node = pending.remove(pending.size() - 1);
+                int distance = pattern.distance(node.word);
+                if (distance <= maxDistance) {
+                    consumer.accept(node.word, distance);
+                }
+                for (Map.Entry<Integer, Node> child : node.children.entrySet()) {
+                    if (Math.abs(child.getKey() - distance) <= maxDistance) {
+                        pending.add(child.getValue());
+                    }
+                }
+            }
+        }
+
+        private static final class Node {
+            private final String word;
+            private final Map<Integer, Node> children = new HashMap<>(4);
+
+            private Node(String word) {
+                this.word = word;
+            }
+        }
+    }
+}
@@ -0,0 +1,356 @@
+package com.company.admin.admin_backend.Service;
+
+import com.company.admin.admin_backend.dto.MedicineDTO;
+import com.company.admin.admin_backend.dto.MedicineImportResultDTO;
+import com.company.admin.admin_backend.entity.StockMovementType;
+import com.company.admin.admin_backend.event.MedicineChangedEvent;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Streaming bulk import of supplier sheets (CSV with a header row, or NDJSON).
+ * Rows are validated as they are read and written with plain JDBC batches, one
+ * transaction per chunk; Medicine uses IDENTITY ids, so Hibernate could not batch them.
+ * Each chunk publishes a MedicineChangedEvent per inserted row, so the in-memory catalog
+ * structures take in exactly those rows after the chunk commits. A chunk the database
+ * rejects is reported against its rows and the import carries on with the next one.
+ */
+@Service
+public class MedicineImportService {
+
+    private static final int CHUNK_SIZE = 1000;
+    private static final int MAX_REPORTED_ERRORS = 1000;
+
+    private static final String INSERT_SQL =
+            "INSERT INTO medicines (medicine_name, generic_name, manufacturer, quantity, reorder_level, price, " +
+            "category, dosage_form, expiry_date, batch_number, strength, storage_condition, " +
+            "prescription_required, description, is_deleted, created_at, updated_at) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, false, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    public MedicineImportService(JdbcTemplate jdbcTemplate,
+                                 TransactionTemplate transactionTemplate,
+                                 ApplicationEventPublisher eventPublisher) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.eventPublisher = eventPublisher;
+    }
+
+    // ================= IMPORT =================
+    public MedicineImportResultDTO importCsv(InputStream input) throws IOException {
+        MedicineImportResultDTO result = new MedicineImportResultDTO();
+        long start = System.currentTimeMillis();
+
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8))) {
+            List<String> header = readCsvRecord(reader);
+            if (header == null) {
+                throw new IllegalArgumentException("CSV is empty");
+            }
+
+            List<ImportRow> chunk = new ArrayList<>(CHUNK_SIZE);
+            long rowNumber = 1; // header is row 1
+            List<String> record;
+            while ((record = readCsvRecord(reader)) != null) {
+                rowNumber++;
+                if (record.size() == 1 && record.get(0).isBlank()) continue;
+
+                Map<String, String> fields = new HashMap<>();
+                for (int i = 0; i < header.size() && i < record.size(); i++) {
+                    fields.put(header.get(i).trim(), record.get(i));
+                }
+                accept(fields, rowNumber, chunk, result);
+            }
+            flush(chunk, result);
+        } finally {
+            finish(result, start);
+        }
+        return result;
+    }
+
+    public MedicineImportResultDTO importNdjson(InputStream input) throws IOException {
+        MedicineImportResultDTO result = new MedicineImportResultDTO();
+        long start = System.currentTimeMillis();
+
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8))) {
+            List<ImportRow> chunk = new ArrayList<>(CHUNK_SIZE);
+            long rowNumber = 0;
+            String line;
+            while ((line = reader.readLine()) != null) {
+                rowNumber++;
+                if (line.isBlank()) continue;
+
+                Map<String, String> fields = new HashMap<>();
+                try {
+                    Map<?, ?> json = objectMapper.readValue(line, Map.class);
+                    json.forEach((k, v) -> fields.put(String.valueOf(k), v == null ? null : String.valueOf(v)));
+                } catch (IOException e) {
+                    result.setTotalRows(result.getTotalRows() + 1);
+                    reject(result, rowNumber, "Invalid JSON");
+                    continue;
+                }
+                accept(fields, rowNumber, chunk, result);
+            }
+            flush(chunk, result);
+        } finally {
+            finish(result, start);
+        }
+        return result;
+    }
+
+    // ================= ROWS =================
+    private void accept(Map<String, String> fields, long rowNumber,
+                        List<ImportRow> chunk, MedicineImportResultDTO result) {
+        result.setTotalRows(result.getTotalRows() + 1);
+        try {
+            chunk.add(ImportRow.from(fields, rowNumber));
+        } catch (IllegalArgumentException e) {
+            reject(result, rowNumber, e.getMessage());
+            return;
+        }
+
+        if (chunk.size() >= CHUNK_SIZE) {
+            flush(chunk, result);
+        }
+    }
+
+    private void reject(MedicineImportResultDTO result, long rowNumber, String message) {
+        result.setFailed(result.getFailed() + 1);
+        if (result.getErrors().size() < MAX_REPORTED_ERRORS) {
+            result.getErrors().add(new MedicineImportResultDTO.RowError(rowNumber, message));
+        }
+    }
+
+    // One transaction and one JDBC batch per chunk; a failed chunk is rolled back and reported
+    private void flush(List<ImportRow> chunk, MedicineImportResultDTO result) {
+        if (chunk.isEmpty()) return;
+
+        try {
+            transactionTemplate.executeWithoutResult(status -> insertChunk(chunk));
+            result.setImported(result.getImported() + chunk.size());
+        } catch (DataAccessException e) {
+            String message = "Not imported: " + e.getMostSpecificCause().getMessage();
+            for (ImportRow row : chunk) {
+                reject(result, row.rowNumber, message);
+            }
+        }
+        chunk.clear();
+    }
+
+    private void insertChunk(List<ImportRow> chunk) {
+        LocalDateTime now = LocalDateTime.now();
+        Timestamp stamp = Timestamp.valueOf(now);
+        KeyHolder keys = new GeneratedKeyHolder();
+
+        jdbcTemplate.batchUpdate(
+                con -> con.prepareStatement(INSERT_SQL, Statement.RETURN_GENERATED_KEYS),
+                new BatchPreparedStatementSetter() {
+                    @Override
+                    public void setValues(PreparedStatement ps, int i) throws SQLException {
+                        ImportRow row = chunk.get(i);
+                        ps.setString(1, row.medicineName);
+                        ps.setString(2, row.genericName);
+                        ps.setString(3, row.manufacturer);
+                        ps.setInt(4, row.quantity);
+                        ps.setInt(5, row.reorderLevel);
+                        ps.setDouble(6, row.price);
+                        ps.setString(7, row.category);
+                        ps.setString(8, row.dosageForm);
+                        ps.setDate(9, Date.valueOf(row.expiryDate));
+                        ps.setString(10, row.batchNumber);
+                        ps.setString(11, row.strength);
+                        ps.setString(12, row.storageCondition);
+                        ps.setBoolean(13, row.prescriptionRequired);
+                        ps.setString(14, row.description);
+                        ps.setTimestamp(15, stamp);
+                        ps.setTimestamp(16, stamp);
+                    }
+
+                    @Override
+                    public int getBatchSize() {
+                        return chunk.size();
+                    }
+                },
+                keys);
+
+        // Inside the chunk's transaction: listeners that write (lots, ledger) commit with it,
+        // the in-memory ones apply these rows once it has committed
+        List<Map<String, Object>> ids = keys.getKeyList();
+        for (int i = 0; i < chunk.size(); i++) {
+            Long id = ((Number) ids.get(i).values().iterator().next()).longValue();
+            eventPublisher.publishEvent(new MedicineChangedEvent(
+                    id, null, chunk.get(i).toSummary(id, now), StockMovementType.RECEIPT));
+        }
+    }
+
+    private void finish(MedicineImportResultDTO result, long start) {
+        result.setElapsedMs(System.currentTimeMillis() - start);
+    }
+
+    // ================= CSV =================
+    // RFC 4180 record: quoted fields may contain commas, "" and line breaks
+    private static List<String> readCsvRecord(BufferedReader reader) throws IOException {
+        int c = reader.read();
+        if (c == -1) return null;
+
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+
+        while (c != -1) {
+            char ch = (char) c;
+            if (quoted) {
+                if (ch == '"') {
+                    reader.mark(1);
+                    int next = reader.read();
+                    if (next == '"') {
+                        field.append('"');
+                    } else {
+                        quoted = false;
+                        if (next != -1) reader.reset();
+                    }
+                } else {
+                    field.append(ch);
+                }
+            } else if (ch == '"') {
+                quoted = true;
+            } else if (ch == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else if (ch == '\n') {
+                break;
+            } else if (ch != '\r') {
+                field.append(ch);
+            }
+            c = reader.read();
+        }
+
+        fields.add(field.toString());
+        return fields;
+    }
+
+    // Validated row, ready for the batch insert
+    private static final class ImportRow {
+        private long rowNumber;
+        private String medicineName;
+        private String genericName;
+        private String manufacturer;
+        private int quantity;
+        private int reorderLevel;
+        private double price;
+        private String category;
+        private String dosageForm;
+        private LocalDate expiryDate;
+        private String batchNumber;
+        private String strength;
+        private String storageCondition;
+        private boolean prescriptionRequired;
+        private String description;
+
+        private static ImportRow from(Map<String, String> fields, long rowNumber) {
+            ImportRow row = new ImportRow();
+            row.rowNumber = rowNumber;
+
+            row.medicineName = text(fields, "medicineName");
+            if (row.medicineName == null) {
+                throw new IllegalArgumentException("medicineName is required");
+            }
+
+            String quantity = text(fields, "quantity");
+            try {
+                row.quantity = quantity == null ? -1 : new BigDecimal(quantity).intValueExact();
+            } catch (ArithmeticException | NumberFormatException e) {
+                throw new IllegalArgumentException("quantity must be a whole number");
+            }
+            if (row.quantity < 0) {
+                throw new IllegalArgumentException("quantity is required and must be >= 0");
+            }
+
+            String reorderLevel = text(fields, "reorderLevel");
+            try {
+                row.reorderLevel = reorderLevel == null
+                        ? LowStockWatcher.DEFAULT_REORDER_LEVEL
+                        : new BigDecimal(reorderLevel).intValueExact();
+            } catch (ArithmeticException | NumberFormatException e) {
+                throw new IllegalArgumentException("reorderLevel must be a whole number");
+            }
+            if (row.reorderLevel < 0) {
+                throw new IllegalArgumentException("reorderLevel must be >= 0");
+            }
+
+            String price = text(fields, "price");
+            try {
+                row.price = price == null ? -1 : Double.parseDouble(price);
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("price must be a number");
+            }
+            if (row.price < 0 || Double.isNaN(row.price) || Double.isInfinite(row.price)) {
+                throw new IllegalArgumentException("price is required and must be >= 0");
+            }
+
+            String expiry = text(fields, "expiryDate");
+            if (expiry == null) {
+                throw new IllegalArgumentException("expiryDate is required");
+            }
+            try {
+                row.expiryDate = LocalDate.parse(expiry);
+            } catch (DateTimeParseException e) {
+                throw new IllegalArgumentException("expiryDate must be yyyy-MM-dd");
+            }
+
+            row.genericName = text(fields, "genericName");
+            row.manufacturer = text(fields, "manufacturer");
+            row.category = text(fields, "category");
+            row.dosageForm = text(fields, "dosageForm");
+            row.batchNumber = text(fields, "batchNumber");
+            row.strength = text(fields, "strength");
+            row.storageCondition = text(fields, "storageCondition");
+            row.prescriptionRequired = Boolean.parseBoolean(text(fields, "prescriptionRequired"));
+            row.description = text(fields, "description");
+            return row;
+        }
+
+        // What the catalog events carry: everything but the description
+        private MedicineDTO toSummary(Long id, LocalDateTime now) {
+            return new MedicineDTO(id, medicineName, genericName, manufacturer, quantity, reorderLevel,
+                    price, category, dosageForm, expiryDate, batchNumber, strength, storageCondition,
+                    prescriptionRequired, now, now);
+        }
+
+        private static String text(Map<String, String> fields, String name) {
+            String value = fields.get(name);
+            if (value == null) return null;
+            value = value.trim();
+            return value.isEmpty() ? null : value;
+        }
+    }
+}
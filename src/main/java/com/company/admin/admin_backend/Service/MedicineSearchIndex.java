@@ -0,0 +1,212 @@
+package com.company.admin.admin_backend.Service;
+
+import com.company.admin.admin_backend.dto.MedicineDTO;
+import com.company.admin.admin_backend.event.MedicineCatalogLoadedEvent;
+import com.company.admin.admin_backend.event.MedicineChangedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory trigram inverted index over medicineName, genericName and manufacturer.
+ * Answers the same "contains, case-insensitive" question as
+ * MedicineRepository.searchMedicines without scanning the medicines table.
+ */
+@Component
+public class MedicineSearchIndex {
+
+    private static final int GRAM = 3;
+
+    private final Map<Long, Document> documents = new HashMap<>();
+    private final Map<String, Set<Long>> postings = new HashMap<>();
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private volatile boolean ready = false;
+
+    // ================= EVENTS =================
+    @Order(MedicineCatalogVersion.READ_MODEL_ORDER)
+    @EventListener
+    public void onCatalogLoaded(MedicineCatalogLoadedEvent event) {
+        rebuild(event.getMedicines());
+    }
+
+    @Order(MedicineCatalogVersion.READ_MODEL_ORDER)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onMedicineChanged(MedicineChangedEvent event) {
+        if (event.isDelete()) {
+            remove(event.getMedicineId());
+        } else {
+            put(event.getAfter());
+        }
+    }
+
+    // ================= WRITE =================
+    public void rebuild(Collection<MedicineDTO> medicines) {
+        lock.writeLock().lock();
+        try {
+            documents.clear();
+            postings.clear();
+            for (MedicineDTO medicine : medicines) {
+                index(medicine);
+            }
+            ready = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void put(MedicineDTO medicine) {
+        lock.writeLock().lock();
+        try {
+            unindex(medicine.getId());
+            index(medicine);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(Long id) {
+        lock.writeLock().lock();
+        try {
+            unindex(id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // ================= READ =================
+    public boolean isReady() {
+        return ready;
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return documents.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Returns every medicine whose name, generic name or manufacturer contains
+     * the term (case-insensitive), ordered by id like the JPQL query.
+     */
+    public List<MedicineDTO> search(String term) {
+        String query = normalize(term);
+        List<MedicineDTO> result = new ArrayList<>();
+
+        lock.readLock().lock();
+        try {
+            if (query.length() < GRAM) {
+                // Too short for a trigram: a scan over the in-memory documents is still cheap
+                for (Document document : documents.values()) {
+                    if (document.matches(query)) {
+                        result.add(document.medicine);
+                    }
+                }
+            } else {
+                List<Set<Long>> lists = new ArrayList<>();
+                for (String gram : grams(query)) {
+                    Set<Long> ids = postings.get(gram);
+                    if (ids == null) {
+                        return result;
+                    }
+                    lists.add(ids);
+                }
+                lists.sort(Comparator.comparingInt(Set::size));
+
+                Set<Long> smallest = lists.get(0);
+                for (Long id : smallest) {
+                    boolean inAll = true;
+                    for (int i = 1; i < lists.size() && inAll; i++) {
+                        inAll = lists.get(i).contains(id);
+                    }
+                    // Trigrams can match across positions, so confirm the real substring
+                    Document document = documents.get(id);
+                    if (inAll && document.matches(query)) {
+                        result.add(document.medicine);
+                    }
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        result.sort(Comparator.comparing(MedicineDTO::getId));
+        return result;
+    }
+
+    // ================= INTERNAL =================
+    private void index(MedicineDTO medicine) {
+        Document document = new Document(medicine);
+        documents.put(medicine.getId(), document);
+        for (String gram : document.grams()) {
+            postings.computeIfAbsent(gram, k -> new HashSet<>()).add(medicine.getId());
+        }
+    }
+
+    private void unindex(Long id) {
+        Document existing = documents.remove(id);
+        if (existing == null) return;
+
+        for (String gram : existing.grams()) {
+            Set<Long> ids = postings.get(gram);
+            if (ids != null) {
+                ids.remove(id);
+                if (ids.isEmpty()) postings.remove(gram);
+            }
+        }
+    }
+
+    private static Set<String> grams(String value) {
+        Set<String> grams = new HashSet<>();
+        for (int i = 0; i + GRAM <= value.length(); i++) {
+            grams.add(value.substring(i, i + GRAM));
+        }
+        return grams;
+    }
+
+    private static String normalize(String value) {
+        return value == null ? "" : value.toLowerCase(Locale.ROOT);
+    }
+
+    // Indexed medicine with its searchable fields lower-cased once
+    private static final class Document {
+        private final MedicineDTO medicine;
+        private final String name;
+        private final String genericName;
+        private final String manufacturer;
+
+        private Document(MedicineDTO medicine) {
+            this.medicine = medicine;
+            this.name = normalize(medicine.getMedicineName());
+            this.genericName = normalize(medicine.getGenericName());
+            this.manufacturer = normalize(medicine.getManufacturer());
+        }
+
+        private boolean matches(String query) {
+            return name.contains(query) || genericName.contains(query) || manufacturer.contains(query);
+        }
+
+        private Set<String> grams() {
+            Set<String> grams = new HashSet<>();
+            grams.addAll(MedicineSearchIndex.grams(name));
+            grams.addAll(MedicineSearchIndex.grams(genericName));
+            grams.addAll(MedicineSearchIndex.grams(manufacturer));
+            return grams;
+        }
+    }
+}
@@ -1,26 +1,87 @@
 package com.company.admin.admin_backend.Service;
 
+import com.company.admin.admin_backend.dto.MedicineChangesDTO;
 import com.company.admin.admin_backend.dto.MedicineDTO;
+import com.company.admin.admin_backend.dto.MedicineFacetsDTO;
+import com.company.admin.admin_backend.dto.MedicinePageDTO;
 import com.company.admin.admin_backend.dto.MedicineStatsDTO;
+import com.company.admin.admin_backend.dto.MedicineSuggestionDTO;
+import com.company.admin.admin_backend.dto.StockAdjustmentRequestDTO;
+import com.company.admin.admin_backend.dto.StockAdjustmentResultDTO;
 import com.company.admin.admin_backend.entity.Medicine;
+import com.company.admin.admin_backend.entity.StockMovementType;
+import com.company.admin.admin_backend.event.MedicineCatalogLoadedEvent;
+import com.company.admin.admin_backend.event.MedicineChangedEvent;
 import com.company.admin.admin_backend.repository.MedicineRepository;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.Comparator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
 public class MedicineService {
 
+    private static final int DEFAULT_PAGE_SIZE = 50;
+    private static final int MAX_PAGE_SIZE = 200;
+    private static final int MAX_CHANGES_PER_SYNC = 500;
+
     private final MedicineRepository medicineRepository;
+    private final MedicineSearchIndex searchIndex;
+    private final MedicineSuggestIndex suggestIndex;
+    private final MedicineFuzzyIndex fuzzyIndex;
+    private final MedicineSubstitutionIndex substitutionIndex;
+    private final MedicineStatsTracker statsTracker;
+    private final MedicineCatalogCache catalogCache;
+    private final MedicineCatalogVersion catalogVersion;
+    private final MedicineExpiryCalendar expiryCalendar;
+    private final LowStockWatcher lowStockWatcher;
+    private final ApplicationEventPublisher eventPublisher;
 
     // ✅ EXPLICIT CONSTRUCTOR (THIS FIXES EVERYTHING)
-    public MedicineService(MedicineRepository medicineRepository) {
+    public MedicineService(MedicineRepository medicineRepository,
+                           MedicineSearchIndex searchIndex,
+                           MedicineSuggestIndex suggestIndex,
+                           MedicineFuzzyIndex fuzzyIndex,
+                           MedicineSubstitutionIndex substitutionIndex,
+                           MedicineStatsTracker statsTracker,
+                           MedicineCatalogCache catalogCache,
+                           MedicineCatalogVersion catalogVersion,
+                           MedicineExpiryCalendar expiryCalendar,
+                           LowStockWatcher lowStockWatcher,
+                           ApplicationEventPublisher eventPublisher) {
         this.medicineRepository = medicineRepository;
+        this.searchIndex = searchIndex;
+        this.suggestIndex = suggestIndex;
+        this.fuzzyIndex = fuzzyIndex;
+        this.substitutionIndex = substitutionIndex;
+        this.statsTracker = statsTracker;
+        this.catalogCache = catalogCache;
+        this.catalogVersion = catalogVersion;
+        this.expiryCalendar = expiryCalendar;
+        this.lowStockWatcher = lowStockWatcher;
+        this.eventPublisher = eventPublisher;
+    }
+
+    // ================= CATALOG SNAPSHOT =================
+    // One table read on startup feeds every in-memory catalog structure
+    @EventListener(ApplicationReadyEvent.class)
+    public void publishCatalogSnapshot() {
+        List<MedicineDTO> medicines = medicineRepository.findActiveSummaries();
+
+        eventPublisher.publishEvent(new MedicineCatalogLoadedEvent(medicines));
     }
 
     // ================= ADD MEDICINE =================
@@ -32,6 +93,11 @@ public class MedicineService {
         medicine.setGenericName(medicineDTO.getGenericName());
         medicine.setManufacturer(medicineDTO.getManufacturer());
         medicine.setQuantity(medicineDTO.getQuantity());
+        medicine.setReorderLevel(
+                medicineDTO.getReorderLevel() != null
+                        ? medicineDTO.getReorderLevel()
+                        : LowStockWatcher.DEFAULT_REORDER_LEVEL
+        );
         medicine.setPrice(medicineDTO.getPrice());
         medicine.setCategory(medicineDTO.getCategory());
         medicine.setDosageForm(medicineDTO.getDosageForm());
@@ -48,57 +114,310 @@ public class MedicineService {
         medicine.setIsDeleted(false);
 
         Medicine saved = medicineRepository.save(medicine);
-        return convertToDTO(saved);
+        MedicineDTO result = convertToDTO(saved);
+
+        eventPublisher.publishEvent(new MedicineChangedEvent(
+                result.getId(), null, convertToSummaryDTO(saved), StockMovementType.RECEIPT));
+        return result;
     }
 
     // ================= GET ALL =================
     public List<MedicineDTO> getAllMedicines(String search, String category, String sortBy) {
-        List<Medicine> medicines;
+        List<MedicineDTO> medicines;
 
         if (search != null && !search.isEmpty()) {
-            medicines = medicineRepository.searchMedicines(search);
+            medicines = searchMedicines(search);
         } else if (category != null && !category.isEmpty()) {
-            medicines = medicineRepository.findByCategoryAndIsDeletedFalse(category);
+            // Copy: cached lists are shared and get sorted below
+            medicines = new ArrayList<>(catalogCache.getByCategory(category,
+                    () -> medicineRepository.findSummariesByCategory(category)));
         } else {
-            medicines = medicineRepository.findByIsDeletedFalse();
+            medicines = new ArrayList<>(catalogCache.getAllActive(
+                    () -> medicineRepository.findActiveSummaries()));
         }
 
         if (sortBy != null) {
             switch (sortBy) {
                 case "name":
-                    medicines.sort(Comparator.comparing(Medicine::getMedicineName));
+                    medicines.sort(Comparator.comparing(MedicineDTO::getMedicineName));
                     break;
                 case "price":
-                    medicines.sort(Comparator.comparing(Medicine::getPrice));
+                    medicines.sort(Comparator.comparing(MedicineDTO::getPrice));
                     break;
                 case "quantity":
-                    medicines.sort(Comparator.comparing(Medicine::getQuantity));
+                    medicines.sort(Comparator.comparing(MedicineDTO::getQuantity));
                     break;
             }
         }
 
-        return medicines.stream()
-                .map(this::convertToDTO)
+        return medicines;
+    }
+
+    // ================= PAGED (KEYSET) =================
+    public MedicinePageDTO getMedicinePage(String search, String category, String sortBy,
+                                           String cursor, Integer limit) {
+        int size = (limit == null || limit <= 0) ? DEFAULT_PAGE_SIZE : Math.min(limit, MAX_PAGE_SIZE);
+        String sortKey = MedicineCursor.sortKey(sortBy);
+        MedicineCursor after = cursor == null || cursor.isEmpty()
+                ? MedicineCursor.start(sortKey)
+                : MedicineCursor.decode(cursor, sortKey);
+
+        List<MedicineDTO> rows;
+        if (search != null && !search.isEmpty()) {
+            rows = searchPage(search, sortKey, after, size + 1);
+        } else {
+            String categoryFilter = (category == null || category.isEmpty()) ? null : category;
+            // One extra row tells us whether another page exists
+            rows = findPage(categoryFilter, sortKey, after, PageRequest.of(0, size + 1));
+        }
+
+        String nextCursor = null;
+        if (rows.size() > size) {
+            rows = rows.subList(0, size);
+            nextCursor = MedicineCursor.after(sortKey, rows.get(size - 1)).encode();
+        }
+
+        return new MedicinePageDTO(rows, nextCursor);
+    }
+
+    private List<MedicineDTO> findPage(String category, String sortKey, MedicineCursor after, Pageable page) {
+        switch (sortKey) {
+            case MedicineCursor.BY_NAME:
+                return medicineRepository.findPageByName(category, after.getName(), after.getId(), page);
+            case MedicineCursor.BY_PRICE:
+                return medicineRepository.findPageByPrice(category, after.getPrice(), after.getId(), page);
+            case MedicineCursor.BY_QUANTITY:
+                return medicineRepository.findPageByQuantity(category, after.getQuantity(), after.getId(), page);
+            default:
+                return medicineRepository.findPageById(category, after.getId(), page);
+        }
+    }
+
+    // Search hits come from the in-memory index, so the same keyset is applied in memory
+    private List<MedicineDTO> searchPage(String search, String sortKey, MedicineCursor after, int take) {
+        Comparator<MedicineDTO> order;
+        MedicineDTO pivot = new MedicineDTO();
+        pivot.setId(after.getId());
+
+        switch (sortKey) {
+            case MedicineCursor.BY_NAME:
+                order = Comparator.comparing(MedicineDTO::getMedicineName, String.CASE_INSENSITIVE_ORDER);
+                pivot.setMedicineName(after.getName());
+                break;
+            case MedicineCursor.BY_PRICE:
+                order = Comparator.comparing(MedicineDTO::getPrice);
+                pivot.setPrice(after.getPrice());
+                break;
+            case MedicineCursor.BY_QUANTITY:
+                order = Comparator.comparing(MedicineDTO::getQuantity);
+                pivot.setQuantity(after.getQuantity());
+                break;
+            default:
+                order = (a, b) -> 0;
+        }
+        Comparator<MedicineDTO> keyset = order.thenComparing(MedicineDTO::getId);
+
+        return searchMedicines(search)
+                .stream()
+                .filter(m -> keyset.compare(m, pivot) > 0)
+                .sorted(keyset)
+                .limit(take)
+                .collect(Collectors.toList());
+    }
+
+    // ================= DELTA SYNC =================
+    public MedicineChangesDTO getChangesSince(String since) {
+        MedicineCursor watermark = since == null || since.isEmpty()
+                ? MedicineCursor.changeSeq(0L, 0L)
+                : MedicineCursor.decode(since, MedicineCursor.BY_CHANGE_SEQ);
+
+        List<Medicine> rows = medicineRepository.findChangesSince(
+                watermark.getChangeSeq(),
+                watermark.getId(),
+                PageRequest.of(0, MAX_CHANGES_PER_SYNC + 1)
+        );
+
+        boolean hasMore = rows.size() > MAX_CHANGES_PER_SYNC;
+        if (hasMore) {
+            rows = rows.subList(0, MAX_CHANGES_PER_SYNC);
+        }
+
+        List<MedicineDTO> updated = new ArrayList<>();
+        List<MedicineChangesDTO.Tombstone> deleted = new ArrayList<>();
+        for (Medicine medicine : rows) {
+            if (Boolean.TRUE.equals(medicine.getIsDeleted())) {
+                deleted.add(new MedicineChangesDTO.Tombstone(medicine.getId(), medicine.getDeletedAt()));
+            } else {
+                updated.add(convertToSummaryDTO(medicine));
+            }
+        }
+
+        // Sequence numbers commit in order, so the last row served is a safe watermark
+        MedicineCursor next = watermark;
+        if (!rows.isEmpty()) {
+            Medicine last = rows.get(rows.size() - 1);
+            next = MedicineCursor.changeSeq(last.getChangeSeq(), last.getId());
+        }
+
+        return new MedicineChangesDTO(updated, deleted, next.encode(), hasMore);
+    }
+
+    // ================= SEARCH =================
+    // Served from the trigram index; falls back to the LIKE query until the index is loaded
+    private List<MedicineDTO> searchMedicines(String search) {
+        if (searchIndex.isReady()) {
+            return searchIndex.search(search);
+        }
+        return medicineRepository.searchMedicines(search);
+    }
+
+    // ================= FUZZY SEARCH =================
+    // Exact substring hits first, then medicines whose names are a typo or two away
+    public List<MedicineDTO> fuzzySearchMedicines(String search, Integer limit) {
+        if (limit == null || limit <= 0) limit = 20;
+        limit = Math.min(limit, 50);
+
+        if (search == null || search.isBlank()) {
+            return List.of();
+        }
+
+        Map<Long, MedicineDTO> ranked = new LinkedHashMap<>();
+        for (MedicineDTO medicine : searchMedicines(search)) {
+            if (ranked.size() >= limit) break;
+            ranked.put(medicine.getId(), medicine);
+        }
+
+        if (ranked.size() < limit && fuzzyIndex.isReady()) {
+            for (MedicineDTO medicine : fuzzyIndex.search(search, limit)) {
+                if (ranked.size() >= limit) break;
+                ranked.putIfAbsent(medicine.getId(), medicine);
+            }
+        }
+        return new ArrayList<>(ranked.values());
+    }
+
+    // ================= FACETS =================
+    // Unfiltered: the incrementally maintained counts. Filtered: one pass over the in-memory
+    // hits. Before the catalog is loaded: one grouped SQL pass.
+    public MedicineFacetsDTO getFacets(String search, String category) {
+        boolean searching = search != null && !search.isEmpty();
+        String categoryFilter = (category == null || category.isEmpty()) ? null : category;
+        LocalDate today = LocalDate.now();
+        MedicineFacetCounter counter = new MedicineFacetCounter();
+
+        if (!statsTracker.isReady() || (searching && !searchIndex.isReady())) {
+            for (Object[] row : medicineRepository.countFacetCombinations(searching ? search : null, categoryFilter)) {
+                counter.add((String) row[0], (String) row[1], (String) row[2], (Boolean) row[3],
+                        MedicineFacetCounter.expiryBucket((LocalDate) row[4], today),
+                        ((Number) row[5]).longValue());
+            }
+            return counter.toDTO();
+        }
+
+        if (!searching && categoryFilter == null) {
+            return statsTracker.facetSnapshot();
+        }
+
+        List<MedicineDTO> medicines = searching
+                ? searchMedicines(search)
+                : catalogCache.getByCategory(categoryFilter,
+                        () -> medicineRepository.findSummariesByCategory(categoryFilter));
+        for (MedicineDTO medicine : medicines) {
+            if (categoryFilter == null || categoryFilter.equals(medicine.getCategory())) {
+                counter.add(medicine, 1, today);
+            }
+        }
+        return counter.toDTO();
+    }
+
+    // ================= SUGGEST =================
+    public List<MedicineSuggestionDTO> suggestMedicines(String prefix, Integer limit) {
+        if (limit == null || limit <= 0) limit = 10;
+        limit = Math.min(limit, 50);
+
+        if (prefix == null || prefix.isBlank()) {
+            return List.of();
+        }
+
+        if (suggestIndex.isReady()) {
+            return suggestIndex.suggest(prefix, limit);
+        }
+
+        // Index not loaded yet: narrow with the LIKE query, then keep name prefixes only
+        String lower = prefix.toLowerCase();
+        return medicineRepository.searchMedicines(prefix)
+                .stream()
+                .filter(m -> m.getMedicineName().toLowerCase().startsWith(lower))
+                .sorted(Comparator.comparing((MedicineDTO m) -> m.getMedicineName().toLowerCase())
+                        .thenComparing(MedicineDTO::getId))
+                .limit(limit)
+                .map(m -> new MedicineSuggestionDTO(
+                        m.getId(), m.getMedicineName(), m.getStrength(), m.getDosageForm()))
                 .collect(Collectors.toList());
     }
 
     // ================= GET BY ID =================
     public MedicineDTO getMedicineById(Long id) {
-        Medicine medicine = medicineRepository.findByIdAndIsDeletedFalse(id)
+        MedicineDTO medicine = catalogCache.getById(id, () -> medicineRepository.findByIdAndIsDeletedFalse(id)
+                .map(this::convertToDTO)
+                .orElse(null));
+
+        if (medicine == null) {
+            throw new RuntimeException("Medicine not found with id: " + id);
+        }
+        return medicine;
+    }
+
+    // ================= SUBSTITUTES =================
+    // In-stock generic equivalents, answered from memory (nothing to offer before the catalog is loaded)
+    public List<MedicineDTO> getSubstitutes(Long id) {
+        if (!substitutionIndex.isReady()) {
+            return List.of();
+        }
+        return substitutionIndex.substitutesFor(id)
                 .orElseThrow(() -> new RuntimeException("Medicine not found with id: " + id));
-        return convertToDTO(medicine);
+    }
+
+    // ================= CATALOG VERSION =================
+    // Read these before running a list query, never after, so a response is never
+    // labelled with a version newer than its data
+    public String getCatalogETag() {
+        return catalogVersion.getETag();
+    }
+
+    public long getCatalogLastModified() {
+        return catalogVersion.getLastModified();
+    }
+
+    // ================= CACHE COUNTERS =================
+    public Map<String, Object> getCacheCounters() {
+        return catalogCache.getCounters();
     }
 
     // ================= UPDATE =================
+    // Edits the catalog fields only. Quantity is left alone: stock moves through
+    // adjustStock / receiveStock / dispenseStock, so an edit cannot wipe out a concurrent
+    // dispense. The row is locked, so "before" is exactly what this write replaces.
     @Transactional
     public MedicineDTO updateMedicine(Long id, MedicineDTO medicineDTO) {
-        Medicine medicine = medicineRepository.findByIdAndIsDeletedFalse(id)
+        Medicine medicine = medicineRepository.lockActiveById(id)
                 .orElseThrow(() -> new RuntimeException("Medicine not found with id: " + id));
+        MedicineDTO before = convertToSummaryDTO(medicine);
+
+        // Stock only moves through adjustments (ledger, lots); echoing the current quantity back is fine
+        if (medicineDTO.getQuantity() != null && !medicineDTO.getQuantity().equals(medicine.getQuantity())) {
+            throw new IllegalArgumentException("Quantity cannot be changed by an update (stored "
+                    + medicine.getQuantity() + ", sent " + medicineDTO.getQuantity()
+                    + "); use POST /api/admin/medicines/stock-adjustments");
+        }
 
         medicine.setMedicineName(medicineDTO.getMedicineName());
         medicine.setGenericName(medicineDTO.getGenericName());
         medicine.setManufacturer(medicineDTO.getManufacturer());
-        medicine.setQuantity(medicineDTO.getQuantity());
+        // Older clients do not send a reorder level; keep the current one then
+        if (medicineDTO.getReorderLevel() != null) {
+            medicine.setReorderLevel(medicineDTO.getReorderLevel());
+        }
         medicine.setPrice(medicineDTO.getPrice());
         medicine.setCategory(medicineDTO.getCategory());
         medicine.setDosageForm(medicineDTO.getDosageForm());
@@ -109,52 +428,198 @@ public class MedicineService {
         medicine.setPrescriptionRequired(medicineDTO.getPrescriptionRequired());
         medicine.setDescription(medicineDTO.getDescription());
 
-        return convertToDTO(medicineRepository.save(medicine));
+        Medicine saved = medicineRepository.save(medicine);
+
+        eventPublisher.publishEvent(new MedicineChangedEvent(id, before, convertToSummaryDTO(saved)));
+        return convertToDTO(saved);
     }
 
     // ================= DELETE =================
     @Transactional
     public void deleteMedicine(Long id) {
-        Medicine medicine = medicineRepository.findByIdAndIsDeletedFalse(id)
+        Medicine medicine = medicineRepository.lockActiveById(id)
                 .orElseThrow(() -> new RuntimeException("Medicine not found with id: " + id));
+        MedicineDTO before = convertToSummaryDTO(medicine);
 
         medicine.setIsDeleted(true);
         medicine.setDeletedAt(LocalDateTime.now());
         medicineRepository.save(medicine);
+
+        eventPublisher.publishEvent(new MedicineChangedEvent(id, before, null));
+    }
+
+    // ================= BULK STOCK ADJUSTMENT =================
+    // One locking SELECT, one set-based UPDATE, one SELECT after, whatever the batch size.
+    // The rows stay locked until commit, so "before", the rejected check and "after" all
+    // describe the same rows and no concurrent dispense can slip in between.
+    @Transactional
+    public List<StockAdjustmentResultDTO> adjustStock(StockAdjustmentRequestDTO request) {
+        if (request.getItems() == null || request.getItems().isEmpty()) {
+            throw new IllegalArgumentException("No stock adjustments given");
+        }
+
+        boolean delta;
+        if (request.getMode() == null || "DELTA".equalsIgnoreCase(request.getMode())) {
+            delta = true;
+        } else if ("ABSOLUTE".equalsIgnoreCase(request.getMode())) {
+            delta = false;
+        } else {
+            throw new IllegalArgumentException("mode must be DELTA or ABSOLUTE");
+        }
+
+        // Repeated ids: deltas add up, the last absolute count wins
+        Map<Long, Integer> changes = new LinkedHashMap<>();
+        for (StockAdjustmentRequestDTO.Item item : request.getItems()) {
+            if (item.getMedicineId() == null || item.getQuantity() == null) {
+                throw new IllegalArgumentException("Each item needs medicineId and quantity");
+            }
+            if (!delta && item.getQuantity() < 0) {
+                throw new IllegalArgumentException("Absolute quantity cannot be negative for medicine " + item.getMedicineId());
+            }
+            if (delta) {
+                changes.merge(item.getMedicineId(), item.getQuantity(), Integer::sum);
+            } else {
+                changes.put(item.getMedicineId(), item.getQuantity());
+            }
+        }
+
+        Map<Long, MedicineDTO> before = medicineRepository.lockActiveByIds(changes.keySet())
+                .stream()
+                .map(this::convertToSummaryDTO)
+                .collect(Collectors.toMap(MedicineDTO::getId, Function.identity()));
+
+        Map<Long, Integer> applicable = new LinkedHashMap<>(changes);
+        applicable.keySet().retainAll(before.keySet());
+        if (!applicable.isEmpty()) {
+            medicineRepository.applyStockChanges(applicable, delta, LocalDateTime.now());
+        }
+
+        Map<Long, MedicineDTO> after = medicineRepository.findByIdInAndIsDeletedFalse(applicable.keySet())
+                .stream()
+                .map(this::convertToSummaryDTO)
+                .collect(Collectors.toMap(MedicineDTO::getId, Function.identity()));
+
+        List<StockAdjustmentResultDTO> results = new ArrayList<>();
+        for (Map.Entry<Long, Integer> change : changes.entrySet()) {
+            Long id = change.getKey();
+            MedicineDTO old = before.get(id);
+            MedicineDTO now = after.get(id);
+
+            if (old == null || now == null) {
+                results.add(new StockAdjustmentResultDTO(id, null, null, false, "Medicine not found with id: " + id));
+                continue;
+            }
+
+            boolean rejected = delta && old.getQuantity() + change.getValue() < 0;
+            results.add(new StockAdjustmentResultDTO(
+                    id,
+                    old.getQuantity(),
+                    now.getQuantity(),
+                    !rejected,
+                    rejected ? "Insufficient stock" : null
+            ));
+
+            if (!old.getQuantity().equals(now.getQuantity())) {
+                eventPublisher.publishEvent(new MedicineChangedEvent(id, old, now));
+            }
+        }
+
+        return results;
+    }
+
+    // ================= DISPENSE =================
+    /**
+     * Takes `quantity` units off the medicine with one conditional UPDATE: no read before the
+     * write, so concurrent dispenses of the same SKU cannot lose updates or oversell.
+     * Units in expired lots do not count. Returns false (nothing taken) when the sellable
+     * stock cannot cover it.
+     */
+    @Transactional
+    public boolean dispenseStock(Long id, int quantity) {
+        requirePositive(quantity);
+        if (medicineRepository.dispenseStock(id, quantity, LocalDate.now(), LocalDateTime.now()) == 0) {
+            return false;
+        }
+        publishStockChange(id, quantity, StockMovementType.DISPENSE);
+        return true;
+    }
+
+    // Expired units coming off the shelf: same atomic decrement, recorded as a write-off
+    @Transactional
+    public boolean writeOffStock(Long id, int quantity) {
+        requirePositive(quantity);
+        if (medicineRepository.writeOffStock(id, quantity, LocalDateTime.now()) == 0) {
+            return false;
+        }
+        publishStockChange(id, quantity, StockMovementType.EXPIRY_WRITE_OFF);
+        return true;
+    }
+
+    // A delivery: atomic increment, recorded as a receipt
+    @Transactional
+    public void receiveStock(Long id, int quantity) {
+        requirePositive(quantity);
+        if (medicineRepository.receiveStock(id, quantity, LocalDateTime.now()) == 0) {
+            throw new RuntimeException("Medicine not found with id: " + id);
+        }
+        publishStockChange(id, -quantity, StockMovementType.RECEIPT);
+    }
+
+    private static void requirePositive(int quantity) {
+        if (quantity <= 0) {
+            throw new IllegalArgumentException("quantity must be greater than 0");
+        }
+    }
+
+    // Our UPDATE holds the row lock until commit, so this reads exactly our result
+    // (unitsTaken is negative for a receipt)
+    private void publishStockChange(Long id, int unitsTaken, StockMovementType movementType) {
+        medicineRepository.findSummaryById(id).ifPresent(after -> eventPublisher.publishEvent(new MedicineChangedEvent(
+                id, withQuantity(after, after.getQuantity() + unitsTaken), after, movementType)));
     }
 
     // ================= LOW STOCK =================
+    // Without a threshold each medicine is judged against its own reorder level (a set read);
+    // an explicit threshold keeps the old global query
     public List<MedicineDTO> getLowStockMedicines(Integer threshold) {
-        if (threshold == null) threshold = 10;
+        if (threshold == null) {
+            if (lowStockWatcher.isReady()) {
+                return lowStockWatcher.getLowStock();
+            }
+            return medicineRepository.findBelowReorderLevel(LowStockWatcher.DEFAULT_REORDER_LEVEL);
+        }
 
-        return medicineRepository.findLowStockMedicines(threshold)
-                .stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+        return medicineRepository.findLowStockMedicines(threshold);
     }
 
     // ================= EXPIRING =================
     public List<MedicineDTO> getExpiringMedicines(Integer days) {
         if (days == null) days = 30;
 
+        if (expiryCalendar.isReady()) {
+            return expiryCalendar.expiringWithin(days);
+        }
+
         LocalDate today = LocalDate.now();
         LocalDate future = today.plusDays(days);
 
-        return medicineRepository.findExpiringMedicines(today, future)
-                .stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+        return medicineRepository.findExpiringMedicines(today, future);
     }
 
     // ================= STATS =================
+    // O(1) read from the tracker; the aggregate queries only run before the catalog is loaded
     public MedicineStatsDTO getStats() {
+        if (statsTracker.isReady()) {
+            return statsTracker.snapshot();
+        }
+
         Long total = medicineRepository.countByIsDeletedFalse();
         Double value = medicineRepository.calculateTotalInventoryValue();
-        Long lowStock = (long) medicineRepository.findLowStockMedicines(10).size();
-        Long expiring = (long) medicineRepository.findExpiringMedicines(
+        Long lowStock = medicineRepository.countBelowReorderLevel(LowStockWatcher.DEFAULT_REORDER_LEVEL);
+        Long expiring = medicineRepository.countExpiringMedicines(
                 LocalDate.now(),
-                LocalDate.now().plusDays(30)
-        ).size();
+                LocalDate.now().plusDays(MedicineStatsTracker.EXPIRING_WINDOW_DAYS)
+        );
 
         return new MedicineStatsDTO(
                 total,
@@ -165,13 +630,15 @@ public class MedicineService {
     }
 
     // ================= ENTITY → DTO =================
-    private MedicineDTO convertToDTO(Medicine medicine) {
+    // Full DTO, description included: only the single-item reads and write responses use it
+    MedicineDTO convertToDTO(Medicine medicine) {
         MedicineDTO dto = new MedicineDTO();
         dto.setId(medicine.getId());
         dto.setMedicineName(medicine.getMedicineName());
         dto.setGenericName(medicine.getGenericName());
         dto.setManufacturer(medicine.getManufacturer());
         dto.setQuantity(medicine.getQuantity());
+        dto.setReorderLevel(medicine.getReorderLevel());
         dto.setPrice(medicine.getPrice());
         dto.setCategory(medicine.getCategory());
         dto.setDosageForm(medicine.getDosageForm());
@@ -185,4 +652,19 @@ public class MedicineService {
         dto.setUpdatedAt(medicine.getUpdatedAt());
         return dto;
     }
+
+    // Same as the list projections: everything but the description. Catalog events carry
+    // this shape, so the in-memory structures never hold (or serve) descriptions.
+    private MedicineDTO convertToSummaryDTO(Medicine medicine) {
+        MedicineDTO dto = convertToDTO(medicine);
+        dto.setDescription(null);
+        return dto;
+    }
+
+    private static MedicineDTO withQuantity(MedicineDTO dto, Integer quantity) {
+        return new MedicineDTO(dto.getId(), dto.getMedicineName(), dto.getGenericName(), dto.getManufacturer(),
+                quantity, dto.getReorderLevel(), dto.getPrice(), dto.getCategory(), dto.getDosageForm(),
+                dto.getExpiryDate(), dto.getBatchNumber(), dto.getStrength(), dto.getStorageCondition(),
+                dto.getPrescriptionRequired(), dto.getCreatedAt(), dto.getUpdatedAt());
+    }
 }
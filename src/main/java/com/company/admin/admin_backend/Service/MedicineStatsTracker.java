@@ -0,0 +1,104 @@
+package com.company.admin.admin_backend.Service;
+
+import com.company.admin.admin_backend.dto.MedicineDTO;
+import com.company.admin.admin_backend.dto.MedicineFacetsDTO;
+import com.company.admin.admin_backend.dto.MedicineStatsDTO;
+import com.company.admin.admin_backend.event.MedicineCatalogLoadedEvent;
+import com.company.admin.admin_backend.event.MedicineChangedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Inventory statistics kept up to date from catalog change events, so the
+ * dashboard reads them in O(1) instead of re-aggregating the medicines table.
+ * The expiring count comes from the expiry calendar's day buckets and the
+ * low-stock count from the per-medicine reorder levels in LowStockWatcher.
+ * The catalog facets (counts per category, dosage form, ...) are kept the same way.
+ */
+@Component
+public class MedicineStatsTracker {
+
+    public static final int EXPIRING_WINDOW_DAYS = 30;
+
+    private long totalMedicines;
+    private BigDecimal inventoryValue = BigDecimal.ZERO;
+    private final MedicineFacetCounter facets = new MedicineFacetCounter();
+
+    private final MedicineExpiryCalendar expiryCalendar;
+    private final LowStockWatcher lowStockWatcher;
+
+    private volatile boolean ready = false;
+
+    public MedicineStatsTracker(MedicineExpiryCalendar expiryCalendar, LowStockWatcher lowStockWatcher) {
+        this.expiryCalendar = expiryCalendar;
+        this.lowStockWatcher = lowStockWatcher;
+    }
+
+    // ================= EVENTS =================
+    @Order(MedicineCatalogVersion.READ_MODEL_ORDER)
+    @EventListener
+    public synchronized void onCatalogLoaded(MedicineCatalogLoadedEvent event) {
+        totalMedicines = 0;
+        inventoryValue = BigDecimal.ZERO;
+        facets.clear();
+
+        for (MedicineDTO medicine : event.getMedicines()) {
+            apply(medicine, 1);
+        }
+        ready = true;
+    }
+
+    @Order(MedicineCatalogVersion.READ_MODEL_ORDER)
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onMedicineChanged(MedicineChangedEvent event) {
+        if (!ready) return; // nothing to adjust until the startup snapshot is in
+
+        if (event.getBefore() != null) apply(event.getBefore(), -1);
+        if (event.getAfter() != null) apply(event.getAfter(), 1);
+    }
+
+    // ================= READ =================
+    public boolean isReady() {
+        return ready && expiryCalendar.isReady() && lowStockWatcher.isReady();
+    }
+
+    public synchronized MedicineStatsDTO snapshot() {
+        return new MedicineStatsDTO(
+                totalMedicines,
+                inventoryValue.doubleValue(),
+                lowStockWatcher.count(),
+                // At most 31 day buckets, and always relative to today, so no roll-over is needed
+                expiryCalendar.countExpiringWithin(EXPIRING_WINDOW_DAYS)
+        );
+    }
+
+    // Expiry buckets are date-relative, so they are read from the calendar rather than counted here
+    public synchronized MedicineFacetsDTO facetSnapshot() {
+        LocalDate today = LocalDate.now();
+        Map<String, Long> expiry = new HashMap<>();
+        expiry.put(MedicineFacetCounter.EXPIRED, expiryCalendar.countExpiringBetween(null, today.minusDays(1)));
+        expiry.put(MedicineFacetCounter.WITHIN_30_DAYS, expiryCalendar.countExpiringBetween(today, today.plusDays(30)));
+        expiry.put(MedicineFacetCounter.WITHIN_90_DAYS, expiryCalendar.countExpiringBetween(today.plusDays(31), today.plusDays(90)));
+        expiry.put(MedicineFacetCounter.LATER, expiryCalendar.countExpiringBetween(today.plusDays(91), null));
+        return facets.toDTO(expiry);
+    }
+
+    // ================= INTERNAL =================
+    private void apply(MedicineDTO medicine, int sign) {
+        totalMedicines += sign;
+        facets.add(medicine, sign, null);
+
+        if (medicine.getPrice() != null && medicine.getQuantity() != null) {
+            BigDecimal value = BigDecimal.valueOf(medicine.getPrice())
+                    .multiply(BigDecimal.valueOf(medicine.getQuantity()));
+            inventoryValue = sign > 0 ? inventoryValue.add(value) : inventoryValue.subtract(value);
+        }
+    }
+}
@@ -0,0 +1,145 @@
+package com.company.admin.admin_backend.Service;
+
+import com.company.admin.admin_backend.dto.MedicineDTO;
+import com.company.admin.admin_backend.event.MedicineCatalogLoadedEvent;
+import com.company.admin.admin_backend.event.MedicineChangedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDate;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Generic-equivalent lookup: medicines grouped by the normalized
+ * (genericName, strength, dosageForm) tuple, kept current by catalog events.
+ * Medicines without a generic name are never treated as equivalent to anything.
+ * "In stock" means sellable: on hand minus running holds minus units in expired lots.
+ */
+@Component
+public class MedicineSubstitutionIndex {
+
+    private static final Comparator<MedicineDTO> CHEAPEST_FIRST = Comparator
+            .comparing(MedicineDTO::getPrice, Comparator.nullsLast(Comparator.naturalOrder()))
+            .thenComparing(MedicineDTO::getId);
+
+    private final Map<Long, MedicineDTO> medicines = new HashMap<>();
+    private final Map<String, Map<Long, MedicineDTO>> groups = new HashMap<>();
+
+    private final StockReservationEngine reservationEngine;
+    private final StockLotAllocator lotAllocator;
+
+    private volatile boolean ready = false;
+
+    public MedicineSubstitutionIndex(StockReservationEngine reservationEngine, StockLotAllocator lotAllocator) {
+        this.reservationEngine = reservationEngine;
+        this.lotAllocator = lotAllocator;
+    }
+
+    // ================= EVENTS =================
+    @Order(MedicineCatalogVersion.READ_MODEL_ORDER)
+    @EventListener
+    public synchronized void onCatalogLoaded(MedicineCatalogLoadedEvent event) {
+        medicines.clear();
+        groups.clear();
+        for (MedicineDTO medicine : event.getMedicines()) {
+            add(medicine);
+        }
+        ready = true;
+    }
+
+    @Order(MedicineCatalogVersion.READ_MODEL_ORDER)
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onMedicineChanged(MedicineChangedEvent event) {
+        remove(event.getMedicineId());
+        if (!event.isDelete()) {
+            add(event.getAfter());
+        }
+    }
+
+    // ================= READ =================
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * In-stock equivalents of the given medicine (itself excluded), cheapest first.
+     * Empty when the medicine is not in the active catalog.
+     */
+    public synchronized Optional<List<MedicineDTO>> substitutesFor(Long id) {
+        MedicineDTO medicine = medicines.get(id);
+        if (medicine == null) return Optional.empty();
+        return Optional.of(equivalents(medicine, 1));
+    }
+
+    /**
+     * Equivalents of the given medicine that can cover the requested quantity on their own.
+     */
+    public synchronized List<MedicineDTO> substitutesCovering(Long id, int quantity) {
+        MedicineDTO medicine = medicines.get(id);
+        return medicine == null ? List.of() : equivalents(medicine, Math.max(1, quantity));
+    }
+
+    // ================= INTERNAL =================
+    private List<MedicineDTO> equivalents(MedicineDTO medicine, int minQuantity) {
+        String key = key(medicine);
+        if (key == null) return List.of();
+
+        LocalDate today = LocalDate.now();
+        return groups.getOrDefault(key, Map.of())
+                .values()
+                .stream()
+                .filter(m -> !m.getId().equals(medicine.getId()))
+                .filter(m -> sellable(m, today) >= minQuantity)
+                .sorted(CHEAPEST_FIRST)
+                .toList();
+    }
+
+    // Both reads are in memory: the holds' counters and the lot queues
+    private int sellable(MedicineDTO medicine, LocalDate today) {
+        if (medicine.getQuantity() == null) return 0;
+        return medicine.getQuantity()
+                - reservationEngine.heldQuantity(medicine.getId())
+                - lotAllocator.expiredQuantity(medicine.getId(), today);
+    }
+
+    private void add(MedicineDTO medicine) {
+        medicines.put(medicine.getId(), medicine);
+        String key = key(medicine);
+        if (key != null) {
+            groups.computeIfAbsent(key, k -> new HashMap<>()).put(medicine.getId(), medicine);
+        }
+    }
+
+    private void remove(Long id) {
+        MedicineDTO existing = medicines.remove(id);
+        if (existing == null) return;
+
+        String key = key(existing);
+        if (key == null) return;
+        Map<Long, MedicineDTO> group = groups.get(key);
+        if (group != null) {
+            group.remove(id);
+            if (group.isEmpty()) groups.remove(key);
+        }
+    }
+
+    // "Paracetamol ", "500 mg", "Tablet" and "paracetamol", "500mg", "tablet" are the same product
+    static String key(MedicineDTO medicine) {
+        String generic = normalize(medicine.getGenericName());
+        if (generic.isEmpty()) return null;
+        return generic + '|'
+                + normalize(medicine.getStrength()).replace(" ", "") + '|'
+                + normalize(medicine.getDosageForm());
+    }
+
+    private static String normalize(String value) {
+        return value == null ? "" : value.trim().toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,224 @@
+package com.company.admin.admin_backend.Service;
+
+import com.company.admin.admin_backend.dto.MedicineDTO;
+import com.company.admin.admin_backend.dto.MedicineSuggestionDTO;
+import com.company.admin.admin_backend.event.MedicineCatalogLoadedEvent;
+import com.company.admin.admin_backend.event.MedicineChangedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Prefix autocomplete over medicine names.
+ * Reads go to an immutable compressed trie; catalog writes only mark it stale and
+ * the next read builds a fresh trie and swaps it in, so a burst of writes costs one rebuild.
+ * Writes that leave the suggestion text unchanged (stock movements) do not mark it stale.
+ */
+@Component
+public class MedicineSuggestIndex {
+
+    private final Map<Long, MedicineSuggestionDTO> entries = new HashMap<>();
+
+    private volatile PrefixTrie trie = PrefixTrie.build(List.of());
+    private volatile boolean stale = false;
+    private volatile boolean ready = false;
+
+    // ================= EVENTS =================
+    @Order(MedicineCatalogVersion.READ_MODEL_ORDER)
+    @EventListener
+    public void onCatalogLoaded(MedicineCatalogLoadedEvent event) {
+        synchronized (entries) {
+            entries.clear();
+            for (MedicineDTO medicine : event.getMedicines()) {
+                entries.put(medicine.getId(), toSuggestion(medicine));
+            }
+            stale = true;
+            ready = true;
+        }
+    }
+
+    @Order(MedicineCatalogVersion.READ_MODEL_ORDER)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onMedicineChanged(MedicineChangedEvent event) {
+        synchronized (entries) {
+            if (event.isDelete()) {
+                if (entries.remove(event.getMedicineId()) != null) stale = true;
+                return;
+            }
+            MedicineSuggestionDTO suggestion = toSuggestion(event.getAfter());
+            // Stock movements leave name, strength and dosage form alone: no rebuild for those
+            if (!sameSuggestion(entries.get(event.getMedicineId()), suggestion)) {
+                entries.put(event.getMedicineId(), suggestion);
+                stale = true;
+            }
+        }
+    }
+
+    // ================= READ =================
+    public boolean isReady() {
+        return ready;
+    }
+
+    public List<MedicineSuggestionDTO> suggest(String prefix, int limit) {
+        return current().lookup(normalize(prefix), limit);
+    }
+
+    private PrefixTrie current() {
+        if (stale) {
+            synchronized (entries) {
+                if (stale) {
+                    trie = PrefixTrie.build(entries.values());
+                    stale = false;
+                }
+            }
+        }
+        return trie;
+    }
+
+    private static MedicineSuggestionDTO toSuggestion(MedicineDTO medicine) {
+        return new MedicineSuggestionDTO(
+                medicine.getId(),
+                medicine.getMedicineName(),
+                medicine.getStrength(),
+                medicine.getDosageForm()
+        );
+    }
+
+    private static boolean sameSuggestion(MedicineSuggestionDTO current, MedicineSuggestionDTO next) {
+        return current != null
+                && Objects.equals(current.getMedicineName(), next.getMedicineName())
+                && Objects.equals(current.getStrength(), next.getStrength())
+                && Objects.equals(current.getDosageForm(), next.getDosageForm());
+    }
+
+    private static String normalize(String value) {
+        return value == null ? "" : value.toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Immutable radix trie over lower-cased names. Suggestions are kept in one array
+     * sorted by name, and every node stores the [from, to) slice of names below it,
+     * so a lookup walks the prefix once and returns the first entries of that slice.
+     */
+    static final class PrefixTrie {
+
+        private final MedicineSuggestionDTO[] ranked;
+        private final Node root;
+
+        private PrefixTrie(MedicineSuggestionDTO[] ranked, Node root) {
+            this.ranked = ranked;
+            this.root = root;
+        }
+
+        static PrefixTrie build(Collection<MedicineSuggestionDTO> suggestions) {
+            List<MedicineSuggestionDTO> sorted = new ArrayList<>(suggestions);
+            sorted.sort(Comparator
+                    .comparing((MedicineSuggestionDTO s) -> normalize(s.getMedicineName()))
+                    .thenComparing(MedicineSuggestionDTO::getId));
+
+            String[] keys = new String[sorted.size()];
+            for (int i = 0; i < keys.length; i++) {
+                keys[i] = normalize(sorted.get(i).getMedicineName());
+            }
+
+            Node root = keys.length == 0
+                    ? new Node("", 0, 0, new char[0], new Node[0])
+                    : buildNode(keys, 0, keys.length, 0);
+            return new PrefixTrie(sorted.toArray(new MedicineSuggestionDTO[0]), root);
+        }
+
+        List<MedicineSuggestionDTO> lookup(String prefix, int limit) {
+            Node node = root;
+            int pos = 0;
+
+            while (true) {
+                String label = node.label;
+                int overlap = Math.min(label.length(), prefix.length() - pos);
+                if (!label.regionMatches(0, prefix, pos, overlap)) {
+                    return List.of();
+                }
+                pos += overlap;
+                if (pos == prefix.length()) {
+                    break;
+                }
+                node = node.child(prefix.charAt(pos));
+                if (node == null) {
+                    return List.of();
+                }
+            }
+
+            int to = Math.min(node.to, node.from + limit);
+            List<MedicineSuggestionDTO> result = new ArrayList<>(Math.max(0, to - node.from));
+            for (int i = node.from; i < to; i++) {
+                result.add(ranked[i]);
+            }
+            return result;
+        }
+
+        // keys[from, to) all share keys[from].substring(0, labelStart); the node's label starts there
+        private static Node buildNode(String[] keys, int from, int to, int labelStart) {
+            // Sorted input: the common prefix of first and last key is common to the whole range
+            int end = commonPrefix(keys[from], keys[to - 1]);
+            String label = keys[from].substring(labelStart, end);
+
+            List<Character> chars = new ArrayList<>();
+            List<Node> children = new ArrayList<>();
+
+            int i = from;
+            // Keys that end exactly here sort first and belong to this node only
+            while (i < to && keys[i].length() == end) i++;
+
+            while (i < to) {
+                char c = keys[i].charAt(end);
+                int j = i;
+                while (j < to && keys[j].charAt(end) == c) j++;
+                chars.add(c);
+                children.add(buildNode(keys, i, j, end));
+                i = j;
+            }
+
+            char[] edgeChars = new char[chars.size()];
+            for (int k = 0; k < edgeChars.length; k++) edgeChars[k] = chars.get(k);
+            return new Node(label, from, to, edgeChars, children.toArray(new Node[0]));
+        }
+
+        private static int commonPrefix(String a, String b) {
+            int n = Math.min(a.length(), b.length());
+            int i = 0;
+            while (i < n && a.charAt(i) == b.charAt(i)) i++;
+            return i;
+        }
+
+        private static final class Node {
+            private final String label;
+            private final int from;
+            private final int to;
+            private final char[] edgeChars;
+            private final Node[] children;
+
+            private Node(String label, int from, int to, char[] edgeChars, Node[] children) {
+                this.label = label;
+                this.from = from;
+                this.to = to;
+                this.edgeChars = edgeChars;
+                this.children = children;
+            }
+
+            private Node child(char c) {
+                int idx = Arrays.binarySearch(edgeChars, c);
+                return idx >= 0 ? children[idx] : null;
+            }
+        }
+    }
+}
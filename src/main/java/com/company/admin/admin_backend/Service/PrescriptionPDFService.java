@@ -17,19 +17,21 @@ import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.stream.Collectors;
 
 @Service
 @Transactional
 public class PrescriptionPDFService {
 
     private final PrescriptionRepository prescriptionRepository;
+    private final PrescriptionVersionCache versionCache;
 
     @Autowired
     private QRCodeService qrCodeService;
 
-    public PrescriptionPDFService(PrescriptionRepository prescriptionRepository) {
+    public PrescriptionPDFService(PrescriptionRepository prescriptionRepository,
+                                  PrescriptionVersionCache versionCache) {
         this.prescriptionRepository = prescriptionRepository;
+        this.versionCache = versionCache;
     }
 
     public byte[] generatePrescriptionPDF(Long prescriptionId) throws Exception {
@@ -64,25 +66,24 @@ public class PrescriptionPDFService {
         return generatePDF(prescription, items);
     }
 
+    public byte[] generatePrescriptionPDFByVersion(Long prescriptionId, Integer versionNumber) throws Exception {
+        Prescription prescription = prescriptionRepository.findById(prescriptionId)
+                .orElseThrow(() -> new RuntimeException("Prescription not found"));
+
+        List<PrescriptionItem> items = prescriptionRepository
+                .findItemsByPrescriptionIdAndVersion(prescriptionId, versionNumber);
+
+        if (items.isEmpty()) {
+            throw new RuntimeException("No medicines found for this prescription version");
+        }
+
+        return generatePDF(prescription, items);
+    }
+
+    // Whole history in one query over the versions, cached until the prescription is written again
     public List<PrescriptionVersionDTO> getAllPrescriptionVersions(Long prescriptionId) {
-        List<LocalDateTime> timestamps = prescriptionRepository.findAllBatchTimestamps(prescriptionId);
-
-        return timestamps.stream()
-                .map(timestamp -> {
-                    List<PrescriptionItem> items = prescriptionRepository
-                            .findItemsByPrescriptionIdAndTimestamp(prescriptionId, timestamp);
-
-                    String notes = items.isEmpty() ? "" :
-                            (items.get(0).getPrescription().getNotes() != null ?
-                                    items.get(0).getPrescription().getNotes() : "");
-
-                    return new PrescriptionVersionDTO(
-                            timestamp,
-                            items.size(),
-                            notes
-                    );
-                })
-                .collect(Collectors.toList());
+        return versionCache.getHistory(prescriptionId,
+                () -> prescriptionRepository.findVersionSummaries(prescriptionId));
     }
 
     private byte[] generatePDF(Prescription prescription, List<PrescriptionItem> items) throws Exception {
@@ -1,28 +1,107 @@
 package com.company.admin.admin_backend.Service;
 
+import com.company.admin.admin_backend.dto.MedicineDTO;
 import com.company.admin.admin_backend.dto.PatientDTO;
+import com.company.admin.admin_backend.dto.PrescriptionRedemptionDTO;
 import com.company.admin.admin_backend.dto.PrescriptionRequestDTO;
+import com.company.admin.admin_backend.dto.PrescriptionSummaryDTO;
+import com.company.admin.admin_backend.dto.PrescriptionSummaryPageDTO;
 import com.company.admin.admin_backend.entity.*;
 import com.company.admin.admin_backend.repository.*;
 import jakarta.transaction.Transactional;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
 public class PrescriptionService {
 
+    private static final int DEFAULT_PAGE_SIZE = 50;
+    private static final int MAX_PAGE_SIZE = 200;
+
     private final PrescriptionRepository prescriptionRepo;
     private final MedicineRepository medicineRepo;
+    private final MedicineSubstitutionIndex substitutionIndex;
+    private final StockReservationService reservationService;
+    private final JdbcTemplate jdbcTemplate;
+    private final PrescriptionVersionCache versionCache;
+    private final QRCodeService qrCodeService;
+    private final SchemaMigrations schemaMigrations;
 
     public PrescriptionService(PrescriptionRepository prescriptionRepo,
-                               MedicineRepository medicineRepo) {
+                               MedicineRepository medicineRepo,
+                               MedicineSubstitutionIndex substitutionIndex,
+                               StockReservationService reservationService,
+                               JdbcTemplate jdbcTemplate,
+                               PrescriptionVersionCache versionCache,
+                               QRCodeService qrCodeService,
+                               SchemaMigrations schemaMigrations) {
         this.prescriptionRepo = prescriptionRepo;
         this.medicineRepo = medicineRepo;
+        this.substitutionIndex = substitutionIndex;
+        this.reservationService = reservationService;
+        this.jdbcTemplate = jdbcTemplate;
+        this.versionCache = versionCache;
+        this.qrCodeService = qrCodeService;
+        this.schemaMigrations = schemaMigrations;
+    }
+
+    // Item ids used to come from AUTO_INCREMENT: start the pooled id sequence past every existing row
+    @EventListener(ApplicationReadyEvent.class)
+    public void alignItemIdSequence() {
+        jdbcTemplate.update("INSERT INTO prescription_items_seq (next_val) SELECT 1 FROM DUAL " +
+                "WHERE NOT EXISTS (SELECT 1 FROM prescription_items_seq)");
+        jdbcTemplate.update("UPDATE prescription_items_seq SET next_val = " +
+                        "GREATEST(next_val, (SELECT COALESCE(MAX(id), 0) FROM prescription_items) + ?)",
+                PrescriptionItem.ID_ALLOCATION_SIZE + 1);
+    }
+
+    // Items saved before versions existed: one version per (prescription, createdAt) batch, numbered
+    // in time order after any versions the prescription already has, then the items point at it.
+    // Every save since has its version, so this runs once per database.
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillVersions() {
+        schemaMigrations.runOnce("backfill_prescription_versions", this::createMissingVersions);
+    }
+
+    private void createMissingVersions() {
+        jdbcTemplate.update("INSERT INTO prescription_versions " +
+                "(prescription_id, version_number, created_at, item_count, total_amount) " +
+                "SELECT b.prescription_id, " +
+                "COALESCE(m.max_version, 0) + ROW_NUMBER() OVER (PARTITION BY b.prescription_id ORDER BY b.created_at), " +
+                "b.created_at, b.item_count, b.total_amount " +
+                "FROM (SELECT prescription_id, created_at, COUNT(*) AS item_count, SUM(total) AS total_amount " +
+                "FROM prescription_items WHERE version_id IS NULL AND created_at IS NOT NULL " +
+                "GROUP BY prescription_id, created_at) b " +
+                "LEFT JOIN (SELECT prescription_id, MAX(version_number) AS max_version " +
+                "FROM prescription_versions GROUP BY prescription_id) m ON m.prescription_id = b.prescription_id");
+        jdbcTemplate.update("UPDATE prescription_items i JOIN prescription_versions v " +
+                "ON v.prescription_id = i.prescription_id AND v.created_at = i.created_at " +
+                "SET i.version_id = v.id WHERE i.version_id IS NULL");
+    }
+
+    // Rows from before the column existed: last activity is their latest item, else their creation
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillLastActivity() {
+        jdbcTemplate.update("UPDATE prescriptions p SET p.last_activity_at = COALESCE(" +
+                "(SELECT MAX(i.created_at) FROM prescription_items i WHERE i.prescription_id = p.id), p.created_at) " +
+                "WHERE p.last_activity_at IS NULL");
     }
 
     @Transactional
@@ -33,7 +112,7 @@ public class PrescriptionService {
         // ✅ CHECK: If patientId exists, UPDATE existing patient
         if (dto.getPatientId() != null) {
             // Update existing prescription
-            prescription = prescriptionRepo.findById(dto.getPatientId())
+            prescription = prescriptionRepo.lockById(dto.getPatientId())
                     .orElseThrow(() -> new RuntimeException("Patient not found with ID: " + dto.getPatientId()));
 
             // Update patient basic info
@@ -66,12 +145,25 @@ public class PrescriptionService {
         }
 
         // ✅ Add new prescription items (medicines)
+        Set<Long> existingItemIds = prescription.getItems().stream()
+                .map(PrescriptionItem::getId)
+                .collect(Collectors.toSet());
+        Map<Long, List<MedicineDTO>> substitutes = new LinkedHashMap<>();
+        Map<Long, Medicine> medicines = resolveMedicines(dto.getMedicines());
+        PrescriptionVersion version = null;
+        // Without medicines the save only edits the patient: no version, activity stays put
+        if (!dto.getMedicines().isEmpty()) {
+            // Items of the versions this one supersedes give their held stock back first
+            reservationService.releaseHolds(prescription.getItems());
+            version = newVersion(prescription, dto);
+        }
         for (PrescriptionRequestDTO.MedicineItemDTO m : dto.getMedicines()) {
-            Medicine medicine = medicineRepo.findById(m.getMedicineId())
-                    .orElseThrow(() -> new RuntimeException("Medicine not found"));
+            Medicine medicine = medicines.get(m.getMedicineId());
 
             PrescriptionItem item = new PrescriptionItem();
             item.setPrescription(prescription);
+            item.setVersion(version);
+            item.setCreatedAt(version.getCreatedAt());
             item.setMedicine(medicine);
             item.setQuantity(m.getQuantity());
             item.setPrice(m.getPrice());
@@ -82,21 +174,166 @@ public class PrescriptionService {
             item.setTestRequired(m.getTestRequired());
             item.setTestName(m.getTestName());
 
+            // 🔒 Hold the stock until the QR code expires; if on-hand minus other holds
+            // cannot cover it, suggest in-stock equivalents instead (from memory, no query)
+            if (!reservationService.reserve(item)) {
+                suggestSubstitutes(substitutes, item);
+            }
+
             prescription.getItems().add(item);
         }
 
         // Update total amount
         prescription.setTotalAmount(dto.getTotalAmount());
 
-        return prescriptionRepo.save(prescription);
+        // Flushed so the new items have ids to hold stock under
+        Prescription saved = prescriptionRepo.saveAndFlush(prescription);
+        List<PrescriptionItem> issued = saved.getItems().stream()
+                .filter(item -> !existingItemIds.contains(item.getId()))
+                .toList();
+        reservationService.startHolds(issued).forEach(item -> suggestSubstitutes(substitutes, item));
+        versionCache.evictAfterCommit(saved.getId());
+
+        saved.setSubstituteSuggestions(substitutes);
+        return saved;
+    }
+
+    /**
+     * Redeem a prescription's QR code: dispense its items against their stock holds
+     * @param id - Prescription ID
+     * @param itemIds - Items scanned from the QR code (null: the latest prescription batch)
+     */
+    @Transactional
+    public List<PrescriptionRedemptionDTO> redeemPrescription(Long id, List<Long> itemIds) {
+        Prescription prescription = prescriptionRepo.findById(id)
+                .orElseThrow(() -> new RuntimeException("Prescription not found"));
+
+        List<PrescriptionItem> items = itemIds == null || itemIds.isEmpty()
+                ? prescriptionRepo.findLatestBatchByPrescriptionId(id)
+                : prescription.getItems().stream()
+                        .filter(item -> itemIds.contains(item.getId()))
+                        .toList();
+        if (items.isEmpty()) {
+            throw new RuntimeException("No prescription items to redeem");
+        }
+
+        return items.stream()
+                .map(reservationService::redeem)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Redeem a scanned QR code: its hash and expiry are checked, then exactly the items it
+     * lists are dispensed, and only if every one of them still belongs to its prescription
+     * @param qrData - QR code content as printed on the prescription
+     */
+    @Transactional
+    public List<PrescriptionRedemptionDTO> redeemQRCode(String qrData) {
+        if (qrData == null || !qrCodeService.verifyQRData(qrData)) {
+            throw new IllegalArgumentException("Invalid or expired QR code");
+        }
+
+        Map<String, Object> payload = qrCodeService.readQRData(qrData);
+        if (!(payload.get("prescriptionId") instanceof Number prescriptionId)
+                || !(payload.get("medicines") instanceof List<?> medicines)) {
+            throw new IllegalArgumentException("Invalid or expired QR code");
+        }
+        List<Long> itemIds = new ArrayList<>();
+        for (Object medicine : medicines) {
+            if (!(medicine instanceof Map<?, ?> line) || !(line.get("itemId") instanceof Number itemId)) {
+                throw new IllegalArgumentException("Invalid or expired QR code");
+            }
+            itemIds.add(itemId.longValue());
+        }
+        if (itemIds.isEmpty()) {
+            throw new IllegalArgumentException("QR code lists no prescription items");
+        }
+
+        // Items replaced since the code was printed are gone: the code no longer matches
+        Prescription prescription = prescriptionRepo.findById(prescriptionId.longValue())
+                .orElseThrow(() -> new IllegalArgumentException("QR code does not match a prescription"));
+        Set<Long> current = prescription.getItems().stream()
+                .map(PrescriptionItem::getId)
+                .collect(Collectors.toSet());
+        if (!current.containsAll(itemIds)) {
+            throw new IllegalArgumentException("QR code does not match the prescription's current items");
+        }
+
+        return redeemPrescription(prescription.getId(), itemIds);
+    }
+
+    /**
+     * Next version of the prescription; its items share its createdAt so the batch stays one
+     * timestamp. An existing prescription must be locked (lockById) so concurrent saves
+     * cannot take the same number. The version is saved through its items' cascade, without
+     * loading the versions already there.
+     */
+    private PrescriptionVersion newVersion(Prescription prescription, PrescriptionRequestDTO dto) {
+        int latest = prescription.getId() == null ? 0 : prescriptionRepo.findMaxVersionNumber(prescription.getId());
+
+        PrescriptionVersion version = new PrescriptionVersion();
+        version.setPrescription(prescription);
+        version.setVersionNumber(latest + 1);
+        version.setCreatedAt(LocalDateTime.now());
+        version.setItemCount(dto.getMedicines().size());
+        version.setTotalAmount(dto.getTotalAmount() != null
+                ? dto.getTotalAmount()
+                : dto.getMedicines().stream()
+                        .map(PrescriptionRequestDTO.MedicineItemDTO::getTotal)
+                        .filter(Objects::nonNull)
+                        .mapToDouble(Double::doubleValue)
+                        .sum());
+        prescription.setLastActivityAt(version.getCreatedAt());
+        return version;
+    }
+
+    // One query for every medicine on the prescription; all unknown ids are reported together
+    private Map<Long, Medicine> resolveMedicines(List<PrescriptionRequestDTO.MedicineItemDTO> lines) {
+        Set<Long> ids = lines.stream()
+                .map(PrescriptionRequestDTO.MedicineItemDTO::getMedicineId)
+                .collect(Collectors.toCollection(LinkedHashSet::new));
+
+        Map<Long, Medicine> medicines = medicineRepo.findAllById(ids.stream().filter(Objects::nonNull).toList())
+                .stream()
+                .collect(Collectors.toMap(Medicine::getId, Function.identity()));
+
+        List<Long> missing = ids.stream()
+                .filter(id -> !medicines.containsKey(id))
+                .toList();
+        if (!missing.isEmpty()) {
+            throw new RuntimeException("Medicine not found with ids: " + missing);
+        }
+        return medicines;
+    }
+
+    private void suggestSubstitutes(Map<Long, List<MedicineDTO>> substitutes, PrescriptionItem item) {
+        int requested = item.getQuantity() != null ? item.getQuantity() : 1;
+        List<MedicineDTO> equivalents = substitutionIndex.substitutesCovering(item.getMedicine().getId(), requested);
+        if (!equivalents.isEmpty()) {
+            substitutes.put(item.getMedicine().getId(), equivalents);
+        }
     }
 
     public List<Prescription> getAllSortedPrescriptions() {      //getallprescription
-        return prescriptionRepo.findAllOrderByLastItemUpdate(); //changes find all()
+        return prescriptionRepo.findAllOrderByLastActivity(); //changes find all()
+    }
+
+    /**
+     * One page of the prescription list, most recent activity first
+     * @param page - Zero-based page number
+     * @param size - Rows per page (default 50, at most 200)
+     */
+    public PrescriptionSummaryPageDTO getPrescriptionSummaries(Integer page, Integer size) {
+        int pageNumber = (page == null || page < 0) ? 0 : page;
+        int pageSize = (size == null || size <= 0) ? DEFAULT_PAGE_SIZE : Math.min(size, MAX_PAGE_SIZE);
+
+        // A slice reads one row past the page instead of running a count query
+        Slice<PrescriptionSummaryDTO> slice = prescriptionRepo.findSummaries(PageRequest.of(pageNumber, pageSize));
+        return new PrescriptionSummaryPageDTO(slice.getContent(), pageNumber, pageSize, slice.hasNext());
     }
 
     public List<PatientDTO> getAllPatients() {
-        List<Prescription> prescriptions = prescriptionRepo.findAllOrderByLastItemUpdate(); //chnages find all()
+        List<Prescription> prescriptions = prescriptionRepo.findAllOrderByLastActivity(); //chnages find all()
 
         return prescriptions.stream()
                 .map(p -> new PatientDTO(
@@ -117,7 +354,7 @@ public class PrescriptionService {
 
     @Transactional
     public Prescription updatePrescription(Long id, PrescriptionRequestDTO dto) {
-        Optional<Prescription> existingOpt = prescriptionRepo.findById(id);
+        Optional<Prescription> existingOpt = prescriptionRepo.lockById(id);
 
         if (existingOpt.isEmpty()) {
             return null;
@@ -164,19 +401,26 @@ public class PrescriptionService {
         }
 
         // Update medicines/prescription items if provided
+        List<PrescriptionItem> newItems = new ArrayList<>();
+        Map<Long, List<MedicineDTO>> substitutes = new LinkedHashMap<>();
         if (dto.getMedicines() != null && !dto.getMedicines().isEmpty()) {
+            // Replaced items give their held stock back before the new ones are reserved
+            reservationService.releaseHolds(prescription.getItems());
+
             // Clear existing items
             prescription.getItems().clear();
 
             // Add new items
-            List<PrescriptionItem> newItems = new ArrayList<>();
+            Map<Long, Medicine> medicines = resolveMedicines(dto.getMedicines());
+            PrescriptionVersion version = newVersion(prescription, dto);
 
             for (PrescriptionRequestDTO.MedicineItemDTO m : dto.getMedicines()) {
-                Medicine medicine = medicineRepo.findById(m.getMedicineId())
-                        .orElseThrow(() -> new RuntimeException("Medicine not found"));
+                Medicine medicine = medicines.get(m.getMedicineId());
 
                 PrescriptionItem item = new PrescriptionItem();
                 item.setPrescription(prescription);
+                item.setVersion(version);
+                item.setCreatedAt(version.getCreatedAt());
                 item.setMedicine(medicine);
                 item.setQuantity(m.getQuantity());
                 item.setPrice(m.getPrice());
@@ -186,6 +430,9 @@ public class PrescriptionService {
                 item.setInstructions(m.getInstructions());
                 item.setTestRequired(m.getTestRequired());
                 item.setTestName(m.getTestName());
+                if (!reservationService.reserve(item)) {
+                    suggestSubstitutes(substitutes, item);
+                }
 
                 newItems.add(item);
             }
@@ -193,7 +440,13 @@ public class PrescriptionService {
             prescription.setItems(newItems);
         }
 
-        return prescriptionRepo.save(prescription);
+        // Only the items reserved above start holds; the others keep theirs as they are
+        Prescription saved = prescriptionRepo.saveAndFlush(prescription);
+        reservationService.startHolds(newItems).forEach(item -> suggestSubstitutes(substitutes, item));
+        versionCache.evictAfterCommit(id);
+
+        saved.setSubstituteSuggestions(substitutes);
+        return saved;
     }
 
     /**
@@ -209,17 +462,19 @@ public class PrescriptionService {
             return false;
         }
 
+        reservationService.releaseHolds(existingOpt.get().getItems());
         prescriptionRepo.deleteById(id);
+        versionCache.evictAfterCommit(id);
         return true;
     }
 
     /** // in notepad
-     * Get a single prescription by ID
+     * Get a single prescription by ID, with its items and their medicines in the same query
      * @param id - Prescription ID
      * @return Prescription or null if not found
      */
     public Prescription getPrescriptionById(Long id) {
-        return prescriptionRepo.findById(id).orElse(null);
+        return prescriptionRepo.findByIdWithItems(id).orElse(null);
     }
 
 }
\ No newline at end of file
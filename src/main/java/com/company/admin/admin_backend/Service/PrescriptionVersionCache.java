@@ -0,0 +1,46 @@
+package com.company.admin.admin_backend.Service;
+
+import com.company.admin.admin_backend.dto.PrescriptionVersionDTO;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Version history per prescription. Issued versions never change, so a history list only goes
+ * stale when the prescription is written again; that write evicts it once it has committed.
+ */
+@Component
+public class PrescriptionVersionCache {
+
+    private final MedicineCatalogCache.Region<Long, List<PrescriptionVersionDTO>> histories;
+
+    public PrescriptionVersionCache(@Value("${prescription.version-cache.max-entries:2000}") int maxEntries,
+                                    @Value("${prescription.version-cache.ttl-seconds:3600}") long ttlSeconds) {
+        this.histories = new MedicineCatalogCache.Region<>(maxEntries, ttlSeconds * 1000);
+    }
+
+    // ================= READ-THROUGH =================
+    public List<PrescriptionVersionDTO> getHistory(Long prescriptionId, Supplier<List<PrescriptionVersionDTO>> loader) {
+        return histories.get(prescriptionId, loader);
+    }
+
+    // ================= INVALIDATION =================
+    // Evicting before the commit would let a concurrent read cache the old history again
+    public void evictAfterCommit(Long prescriptionId) {
+        if (prescriptionId == null) return;
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            histories.evict(prescriptionId);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                histories.evict(prescriptionId);
+            }
+        });
+    }
+}
@@ -15,14 +15,26 @@ import java.awt.image.BufferedImage;
 import java.nio.charset.StandardCharsets;
 import java.security.MessageDigest;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.*;
 import java.util.stream.Collectors;
 
 @Service
 public class QRCodeService {
 
+    // Prescription QR codes are valid through this many days after the date of issue
+    public static final int VALIDITY_DAYS = 3;
+
     private final ObjectMapper objectMapper = new ObjectMapper();
 
+    /**
+     * Last day a QR code issued at the given time is valid (stock is held until it ends)
+     */
+    public static LocalDate expiresOn(LocalDateTime issuedAt) {
+        LocalDate issued = issuedAt != null ? issuedAt.toLocalDate() : LocalDate.now();
+        return issued.plusDays(VALIDITY_DAYS);
+    }
+
     /**
      * Generate QR Code as BufferedImage
      */
@@ -43,8 +55,8 @@ public class QRCodeService {
      */
     public String createPrescriptionQRData(Long prescriptionId, List<PrescriptionItem> items) {
         try {
-            // Calculate expiry date (3 days from now)
-            LocalDate expiryDate = LocalDate.now().plusDays(3);
+            // Calculate expiry date (3 days from issue, the same window the stock is held for)
+            LocalDate expiryDate = expiresOn(items.isEmpty() ? null : items.get(0).getCreatedAt());
 
             // Build medicines list
             List<Map<String, Object>> medicines = items.stream()
@@ -108,7 +120,7 @@ public class QRCodeService {
     }
 
     /**
-     * Verify QR code data (for future use)
+     * Verify QR code data: the hash matches its content and it has not expired
      */
     public boolean verifyQRData(String qrDataJson) {
         try {
@@ -136,4 +148,15 @@ public class QRCodeService {
             return false;
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * Parsed QR code data; verify it with verifyQRData first
+     */
+    public Map<String, Object> readQRData(String qrDataJson) {
+        try {
+            return objectMapper.readValue(qrDataJson, Map.class);
+        } catch (Exception e) {
+            throw new RuntimeException("Unreadable QR code data", e);
+        }
+    }
+}
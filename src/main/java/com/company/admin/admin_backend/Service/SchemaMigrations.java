@@ -0,0 +1,43 @@
+package com.company.admin.admin_backend.Service;
+
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+
+/**
+ * One-off data migrations for a schema managed by Hibernate's ddl-auto. Each one is recorded
+ * in schema_migrations in the same transaction it runs in, so it runs once per database and
+ * later startups skip it with a primary-key lookup.
+ */
+@Service
+public class SchemaMigrations {
+
+    private static final String RECORD_SQL =
+            "INSERT INTO schema_migrations (name, applied_at) SELECT ?, ? FROM DUAL " +
+            "WHERE NOT EXISTS (SELECT 1 FROM schema_migrations WHERE name = ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    public SchemaMigrations(JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+    }
+
+    public void runOnce(String name, Runnable migration) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                if (jdbcTemplate.update(RECORD_SQL, name, Timestamp.valueOf(LocalDateTime.now()), name) == 0) {
+                    return;
+                }
+                migration.run();
+            });
+        } catch (DuplicateKeyException e) {
+            // Another instance starting at the same time ran it
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package com.company.admin.admin_backend.Service;
+
+import com.company.admin.admin_backend.dto.MedicineDTO;
+import com.company.admin.admin_backend.entity.StockAlert;
+import com.company.admin.admin_backend.entity.StockAlertType;
+import com.company.admin.admin_backend.event.MedicineExpiryAlertEvent;
+import com.company.admin.admin_backend.event.MedicineLowStockEvent;
+import com.company.admin.admin_backend.repository.StockAlertRepository;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Keeps the low-stock and expiry alerts the watchers raise, for the admin alerts screen.
+ * Alerts arrive after the change that caused them has committed, so each is written in a
+ * transaction of its own; an alert that cannot be written never fails that change.
+ */
+@Service
+public class StockAlertService {
+
+    private static final int DEFAULT_LIMIT = 50;
+    private static final int MAX_LIMIT = 200;
+
+    private final StockAlertRepository stockAlertRepository;
+    private final TransactionTemplate newTransaction;
+
+    public StockAlertService(StockAlertRepository stockAlertRepository,
+                             PlatformTransactionManager transactionManager) {
+        this.stockAlertRepository = stockAlertRepository;
+        this.newTransaction = new TransactionTemplate(transactionManager);
+        this.newTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    // ================= EVENTS =================
+    @EventListener
+    public void onLowStock(MedicineLowStockEvent event) {
+        StockAlert alert = alertFor(event.getMedicine(), event.isLow() ? StockAlertType.LOW_STOCK : StockAlertType.RESTOCKED);
+        save(alert);
+    }
+
+    // Raised again after a restart or a catch-up run: kept once per medicine, mark and expiry date
+    @EventListener
+    public void onExpiryAlert(MedicineExpiryAlertEvent event) {
+        MedicineDTO medicine = event.getMedicine();
+        StockAlert alert = alertFor(medicine, StockAlertType.EXPIRY);
+        alert.setMark(event.getMark());
+        alert.setDaysLeft(event.getDaysLeft());
+        alert.setExpiryDate(medicine.getExpiryDate());
+        save(alert);
+    }
+
+    // ================= READ =================
+    public List<StockAlert> getRecentAlerts(Integer limit) {
+        int size = (limit == null || limit <= 0) ? DEFAULT_LIMIT : Math.min(limit, MAX_LIMIT);
+        return stockAlertRepository.findRecent(PageRequest.of(0, size));
+    }
+
+    // ================= INTERNAL =================
+    private void save(StockAlert alert) {
+        try {
+            newTransaction.executeWithoutResult(status -> {
+                if (alert.getExpiryDate() != null && stockAlertRepository.existsByMedicineIdAndAlertTypeAndMarkAndExpiryDate(
+                        alert.getMedicineId(), alert.getAlertType(), alert.getMark(), alert.getExpiryDate())) {
+                    return;
+                }
+                stockAlertRepository.save(alert);
+            });
+        } catch (RuntimeException e) {
+            e.printStackTrace();
+        }
+    }
+
+    private static StockAlert alertFor(MedicineDTO medicine, StockAlertType type) {
+        StockAlert alert = new StockAlert();
+        alert.setMedicineId(medicine.getId());
+        alert.setMedicineName(medicine.getMedicineName());
+        alert.setAlertType(type);
+        alert.setQuantity(medicine.getQuantity());
+        alert.setCreatedAt(LocalDateTime.now());
+        return alert;
+    }
+}
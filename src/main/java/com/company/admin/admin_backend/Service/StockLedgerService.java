@@ -0,0 +1,149 @@
+package com.company.admin.admin_backend.Service;
+
+import com.company.admin.admin_backend.entity.MedicineChangeCounter;
+import com.company.admin.admin_backend.entity.StockMovementType;
+import com.company.admin.admin_backend.event.MedicineCatalogLoadedEvent;
+import com.company.admin.admin_backend.event.MedicineChangedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Append-only ledger of stock movements (receipts, dispenses, adjustments, expiry write-offs),
+ * fed by MedicineChangedEvents and written in one JDBC batch just before the transaction that
+ * moved the stock commits, so a movement is recorded exactly when its stock change is. Daily per-medicine
+ * snapshots bound the replay: stock as of a date is the nearest snapshot at or before it plus
+ * the movements after it. Current stock stays Medicine.quantity, a primary-key read.
+ *
+ * Movement ids are AUTO_INCREMENT values, handed out when the row is inserted, not when it
+ * commits. The insert therefore runs under the medicine change counter's row lock, which every
+ * stock-moving transaction holds from then until its commit: ids become visible in ascending
+ * order, and a snapshot that rolled up to id N can never be passed by a movement below N that
+ * commits later.
+ */
+@Service
+public class StockLedgerService {
+
+    // Last of the pre-commit batches, right after the change sequence took the counter lock
+    private static final int WRITE_ORDER = MedicineChangeSequence.STAMP_ORDER + 1;
+
+    // Already held when the change sequence stamped first; taken here so the id order holds
+    // whatever else ran in the transaction
+    private static final String LOCK_COUNTER_SQL =
+            "SELECT last_seq FROM medicine_change_counter WHERE id = ? FOR UPDATE";
+
+    private static final String INSERT_MOVEMENT_SQL =
+            "INSERT INTO stock_movements (medicine_id, movement_type, delta, balance_after, occurred_at) " +
+            "VALUES (?, ?, ?, ?, ?)";
+
+    // Medicines with no history yet (rows from before the ledger) start from their
+    // current quantity. They have no movements, so the snapshot covers "everything up to id 0".
+    private static final String OPENING_SNAPSHOTS_SQL =
+            "INSERT INTO stock_snapshots (medicine_id, taken_at, quantity, last_movement_id) " +
+            "SELECT m.id, ?, COALESCE(m.quantity, 0), 0 FROM medicines m " +
+            "WHERE m.is_deleted = false " +
+            "AND NOT EXISTS (SELECT 1 FROM stock_snapshots s WHERE s.medicine_id = m.id) " +
+            "AND NOT EXISTS (SELECT 1 FROM stock_movements v WHERE v.medicine_id = m.id)";
+
+    // Every movement up to the previous run's last id is already in its medicine's latest
+    // snapshot, so a run only reads the movements since then. "Latest" is the highest snapshot
+    // id, not taken_at: two snapshots taken in the same instant would both match and double count.
+    private static final String ROLL_SNAPSHOTS_SQL =
+            "INSERT INTO stock_snapshots (medicine_id, taken_at, quantity, last_movement_id) " +
+            "SELECT v.medicine_id, ?, COALESCE(s.quantity, 0) + SUM(v.delta), ? " +
+            "FROM stock_movements v " +
+            "LEFT JOIN stock_snapshots s ON s.medicine_id = v.medicine_id " +
+            "AND s.id = (SELECT MAX(s2.id) FROM stock_snapshots s2 WHERE s2.medicine_id = v.medicine_id) " +
+            "WHERE v.id > ? AND v.id <= ? " +
+            "GROUP BY v.medicine_id, s.quantity";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final TransactionBatch<Object[]> movements;
+
+    public StockLedgerService(JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.movements = new TransactionBatch<>(WRITE_ORDER, this::write);
+    }
+
+    // ================= EVENTS =================
+    @EventListener
+    public void onCatalogLoaded(MedicineCatalogLoadedEvent event) {
+        jdbcTemplate.update(OPENING_SNAPSHOTS_SQL, Timestamp.valueOf(LocalDateTime.now()));
+    }
+
+    // Runs inside the writing transaction: the movement commits or rolls back with the stock
+    // UPDATE. Deletes leave the quantity as it was.
+    @EventListener
+    public void onMedicineChanged(MedicineChangedEvent event) {
+        if (event.isDelete()) return;
+
+        int before = event.getBefore() != null && event.getBefore().getQuantity() != null
+                ? event.getBefore().getQuantity() : 0;
+        int after = event.getAfter().getQuantity() != null ? event.getAfter().getQuantity() : 0;
+        if (before == after) return;
+
+        StockMovementType type = event.getMovementType();
+        movements.add(new Object[]{
+                event.getMedicineId(), type.name(), after - before, after, Timestamp.valueOf(LocalDateTime.now())
+        });
+    }
+
+    // ================= WRITE =================
+    private void write(List<Object[]> batch) {
+        if (!TransactionSynchronizationManager.isActualTransactionActive()) {
+            // Lock and insert in one transaction, or the lock is gone before the id is used
+            transactionTemplate.executeWithoutResult(status -> write(batch));
+            return;
+        }
+
+        jdbcTemplate.queryForList(LOCK_COUNTER_SQL, MedicineChangeCounter.ROW_ID);
+        jdbcTemplate.batchUpdate(INSERT_MOVEMENT_SQL, batch);
+    }
+
+    // ================= SNAPSHOTS =================
+    // Nightly: one snapshot per medicine that moved since the last run. Every movement up to the
+    // highest visible id has committed (see the class comment), so that id is a safe watermark.
+    @Scheduled(cron = "0 20 0 * * *")
+    public synchronized void takeSnapshots() {
+        Long from = jdbcTemplate.queryForObject(
+                "SELECT COALESCE(MAX(last_movement_id), 0) FROM stock_snapshots", Long.class);
+        Long to = jdbcTemplate.queryForObject(
+                "SELECT COALESCE(MAX(id), 0) FROM stock_movements", Long.class);
+        if (to <= from) return;
+
+        jdbcTemplate.update(ROLL_SNAPSHOTS_SQL, Timestamp.valueOf(LocalDateTime.now()), to, from, to);
+    }
+
+    // ================= READ =================
+    /**
+     * On-hand stock of the medicine at the given moment: the nearest snapshot at or before it,
+     * plus the movements recorded after that snapshot up to the moment.
+     */
+    public int getStockAsOf(Long medicineId, LocalDateTime asOf) {
+        List<Map<String, Object>> snapshot = jdbcTemplate.queryForList(
+                "SELECT quantity, last_movement_id FROM stock_snapshots " +
+                "WHERE medicine_id = ? AND taken_at <= ? ORDER BY taken_at DESC, id DESC LIMIT 1",
+                medicineId, Timestamp.valueOf(asOf));
+
+        // No snapshot yet: the medicine's history starts at its first movement
+        int base = snapshot.isEmpty() ? 0 : ((Number) snapshot.get(0).get("quantity")).intValue();
+        long afterId = snapshot.isEmpty() ? 0 : ((Number) snapshot.get(0).get("last_movement_id")).longValue();
+
+        Long replayed = jdbcTemplate.queryForObject(
+                "SELECT COALESCE(SUM(delta), 0) FROM stock_movements " +
+                "WHERE medicine_id = ? AND id > ? AND occurred_at <= ?",
+                Long.class, medicineId, afterId, Timestamp.valueOf(asOf));
+
+        return base + replayed.intValue();
+    }
+}
@@ -0,0 +1,175 @@
+package com.company.admin.admin_backend.Service;
+
+import com.company.admin.admin_backend.dto.StockAllocationDTO;
+import com.company.admin.admin_backend.dto.StockLotDTO;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * First-expiry-first-out picking over stock lots. Each medicine has its own priority
+ * queue of open lots keyed by (expiryDate, id), so choosing the next lot is a peek and
+ * finishing one is O(log n), with no query per allocation. Medicines lock independently.
+ */
+@Component
+public class StockLotAllocator {
+
+    private static final Comparator<Lot> FEFO = Comparator
+            .comparing((Lot lot) -> lot.expiryDate)
+            .thenComparing(lot -> lot.id);
+
+    private final Map<Long, PriorityQueue<Lot>> queues = new ConcurrentHashMap<>();
+    // Expired lots taken off the front of a queue, still on hand until written off; guarded by that queue
+    private final Map<Long, List<Lot>> expiredLots = new ConcurrentHashMap<>();
+
+    private volatile boolean ready = false;
+
+    // ================= LOAD =================
+    public void load(Collection<StockLotDTO> openLots) {
+        Map<Long, PriorityQueue<Lot>> loaded = new ConcurrentHashMap<>();
+        for (StockLotDTO lot : openLots) {
+            loaded.computeIfAbsent(lot.getMedicineId(), id -> new PriorityQueue<>(FEFO)).add(new Lot(lot));
+        }
+        queues.clear();
+        expiredLots.clear();
+        queues.putAll(loaded);
+        ready = true;
+    }
+
+    public void addLot(StockLotDTO lot) {
+        if (lot.getQuantity() == null || lot.getQuantity() <= 0) return;
+
+        PriorityQueue<Lot> queue = queue(lot.getMedicineId());
+        synchronized (queue) {
+            queue.add(new Lot(lot));
+        }
+    }
+
+    // Replaces one medicine's queue with its lots as the table holds them now
+    public void reload(Long medicineId, Collection<StockLotDTO> lots) {
+        PriorityQueue<Lot> queue = queue(medicineId);
+        synchronized (queue) {
+            queue.clear();
+            expiredLots.remove(medicineId);
+            for (StockLotDTO lot : lots) {
+                if (lot.getQuantity() != null && lot.getQuantity() > 0) queue.add(new Lot(lot));
+            }
+        }
+    }
+
+    public void removeMedicine(Long medicineId) {
+        queues.remove(medicineId);
+        expiredLots.remove(medicineId);
+    }
+
+    // ================= READ =================
+    public boolean isReady() {
+        return ready;
+    }
+
+    // Units on hand in lots past their expiry date: counted in the total, never dispensed
+    public int expiredQuantity(Long medicineId, LocalDate today) {
+        PriorityQueue<Lot> queue = queues.get(medicineId);
+        if (queue == null) return 0;
+
+        int expired = 0;
+        synchronized (queue) {
+            for (Lot lot : expiredLots.getOrDefault(medicineId, List.of())) {
+                expired += lot.remaining;
+            }
+            for (Lot lot : queue) {
+                if (lot.expiryDate.isBefore(today)) expired += lot.remaining;
+            }
+        }
+        return expired;
+    }
+
+    // ================= ALLOCATE =================
+    /**
+     * Takes `quantity` units from the medicine's unexpired lots, soonest expiry first.
+     * Units beyond what the lots hold come back as one allocation without a lot; the caller's
+     * guarded decrement already made sure those are unlotted units, never expired ones.
+     * Inside a transaction the taken units are put back if it rolls back.
+     */
+    public List<StockAllocationDTO> allocate(Long medicineId, int quantity, LocalDate today) {
+        List<StockAllocationDTO> allocations = new ArrayList<>();
+        List<Lot> touched = new ArrayList<>();
+        List<Integer> taken = new ArrayList<>();
+        int remaining = quantity;
+
+        PriorityQueue<Lot> queue = queue(medicineId);
+        synchronized (queue) {
+            while (remaining > 0 && !queue.isEmpty()) {
+                Lot lot = queue.peek();
+                // Expired lots are never dispensed; they wait for a write-off
+                if (lot.expiryDate.isBefore(today)) {
+                    expiredLots.computeIfAbsent(medicineId, id -> new ArrayList<>()).add(queue.poll());
+                    continue;
+                }
+
+                int take = Math.min(lot.remaining, remaining);
+                lot.remaining -= take;
+                remaining -= take;
+                if (lot.remaining == 0) queue.poll();
+
+                touched.add(lot);
+                taken.add(take);
+                allocations.add(new StockAllocationDTO(medicineId, lot.id, lot.batchNumber, lot.expiryDate, take));
+            }
+        }
+
+        if (remaining > 0) {
+            allocations.add(new StockAllocationDTO(medicineId, null, null, null, remaining));
+        }
+
+        if (!touched.isEmpty() && TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status != STATUS_COMMITTED) {
+                        restore(queue, touched, taken);
+                    }
+                }
+            });
+        }
+        return allocations;
+    }
+
+    private void restore(PriorityQueue<Lot> queue, List<Lot> lots, List<Integer> taken) {
+        synchronized (queue) {
+            for (int i = 0; i < lots.size(); i++) {
+                Lot lot = lots.get(i);
+                if (lot.remaining == 0) queue.add(lot);
+                lot.remaining += taken.get(i);
+            }
+        }
+    }
+
+    private PriorityQueue<Lot> queue(Long medicineId) {
+        return queues.computeIfAbsent(medicineId, id -> new PriorityQueue<>(FEFO));
+    }
+
+    // Open lot; `remaining` is only touched under the medicine's queue lock
+    private static final class Lot {
+        private final Long id;
+        private final String batchNumber;
+        private final LocalDate expiryDate;
+        private int remaining;
+
+        private Lot(StockLotDTO lot) {
+            this.id = lot.getId();
+            this.batchNumber = lot.getBatchNumber();
+            this.expiryDate = lot.getExpiryDate();
+            this.remaining = lot.getQuantity();
+        }
+    }
+}
@@ -0,0 +1,225 @@
+package com.company.admin.admin_backend.Service;
+
+import com.company.admin.admin_backend.dto.MedicineDTO;
+import com.company.admin.admin_backend.dto.StockAllocationDTO;
+import com.company.admin.admin_backend.dto.StockLotDTO;
+import com.company.admin.admin_backend.entity.Medicine;
+import com.company.admin.admin_backend.entity.StockLot;
+import com.company.admin.admin_backend.entity.StockMovementType;
+import com.company.admin.admin_backend.event.MedicineCatalogLoadedEvent;
+import com.company.admin.admin_backend.event.MedicineChangedEvent;
+import com.company.admin.admin_backend.repository.MedicineRepository;
+import com.company.admin.admin_backend.repository.StockLotRepository;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Stock lots under each medicine. Medicine.quantity stays the on-hand total; lots break it
+ * down by batch and expiry so dispensing can take the soonest-expiring units first.
+ * Lots never hold more than the total: units beyond them are "unlotted" (a medicine without
+ * an expiry date). Writes that move the total outside this service (adjustments, new
+ * medicines, imports) are reconciled into the lots inside the same transaction.
+ */
+@Service
+public class StockLotService {
+
+    // Lots are reconciled before the other pre-commit batches run
+    private static final int RECONCILE_ORDER = 0;
+
+    private final StockLotRepository stockLotRepository;
+    private final MedicineRepository medicineRepository;
+    private final MedicineService medicineService;
+    private final StockLotAllocator allocator;
+    private final TransactionTemplate transactionTemplate;
+    private final TransactionBatch<Long> reconcileBatch;
+
+    public StockLotService(StockLotRepository stockLotRepository,
+                           MedicineRepository medicineRepository,
+                           MedicineService medicineService,
+                           StockLotAllocator allocator,
+                           TransactionTemplate transactionTemplate) {
+        this.stockLotRepository = stockLotRepository;
+        this.medicineRepository = medicineRepository;
+        this.medicineService = medicineService;
+        this.allocator = allocator;
+        this.transactionTemplate = transactionTemplate;
+        this.reconcileBatch = new TransactionBatch<>(RECONCILE_ORDER, this::reconcile);
+    }
+
+    // ================= EVENTS =================
+    // Lots that drifted from the totals (older rows, changes made before this check) are
+    // reconciled in one pass, then the queues load in one read
+    @EventListener
+    public void onCatalogLoaded(MedicineCatalogLoadedEvent event) {
+        transactionTemplate.executeWithoutResult(status -> {
+            List<Object[]> drift = stockLotRepository.findLotDrift();
+            stockLotRepository.topUpAllLots();
+            trimExcess(drift);
+        });
+        allocator.load(stockLotRepository.findOpenLots());
+    }
+
+    // Runs inside the writing transaction. Dispenses, receipts of lots and write-offs already
+    // move lots and total together; adjustments and new medicines only touch the total.
+    @EventListener
+    public void onStockWritten(MedicineChangedEvent event) {
+        if (event.isDelete()) return;
+        if (event.getBefore() == null || event.getMovementType() == StockMovementType.ADJUSTMENT) {
+            reconcileBatch.add(event.getMedicineId());
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onMedicineChanged(MedicineChangedEvent event) {
+        if (event.isDelete()) {
+            allocator.removeMedicine(event.getMedicineId());
+        }
+    }
+
+    // ================= LOTS =================
+    public List<StockLotDTO> getLots(Long medicineId) {
+        medicineService.getMedicineById(medicineId);
+        return stockLotRepository.findLotsOfMedicine(medicineId);
+    }
+
+    // A delivery: new lot, and the medicine's on-hand total goes up by the same amount
+    @Transactional
+    public StockLotDTO receiveLot(Long medicineId, StockLotDTO request) {
+        if (request.getQuantity() == null || request.getQuantity() <= 0) {
+            throw new IllegalArgumentException("quantity must be greater than 0");
+        }
+        if (request.getExpiryDate() == null) {
+            throw new IllegalArgumentException("expiryDate is required");
+        }
+
+        Medicine medicine = medicineRepository.findByIdAndIsDeletedFalse(medicineId)
+                .orElseThrow(() -> new RuntimeException("Medicine not found with id: " + medicineId));
+
+        StockLot lot = new StockLot();
+        lot.setMedicine(medicine);
+        lot.setBatchNumber(request.getBatchNumber());
+        lot.setExpiryDate(request.getExpiryDate());
+        lot.setQuantity(request.getQuantity());
+        StockLot saved = stockLotRepository.save(lot);
+
+        medicineService.receiveStock(medicineId, request.getQuantity());
+
+        StockLotDTO result = new StockLotDTO(saved.getId(), medicineId, saved.getBatchNumber(),
+                saved.getExpiryDate(), saved.getQuantity(), saved.getReceivedAt());
+        afterCommit(() -> allocator.addLot(result));
+        return result;
+    }
+
+    // ================= DISPENSE =================
+    /**
+     * Takes `quantity` units of the medicine, soonest-expiring lot first. The on-hand total is
+     * the authority: an atomic conditional decrement that only counts unexpired lots and
+     * unlotted units, so expired stock is never sold. The lots then say which units went.
+     * Returns the lot allocations, or an empty list (nothing taken) when stock cannot cover it.
+     */
+    @Transactional
+    public List<StockAllocationDTO> dispense(Long medicineId, int quantity) {
+        if (quantity <= 0) return List.of();
+
+        if (!medicineService.dispenseStock(medicineId, quantity)) {
+            return List.of();
+        }
+
+        List<StockAllocationDTO> allocations = allocator.allocate(medicineId, quantity, LocalDate.now());
+        for (StockAllocationDTO allocation : allocations) {
+            if (allocation.getLotId() == null) continue;
+            if (stockLotRepository.consume(allocation.getLotId(), allocation.getQuantity()) == 0) {
+                // Queue and table disagree: roll back (the queue is restored with it)
+                throw new IllegalStateException("Stock lot " + allocation.getLotId() + " changed concurrently");
+            }
+        }
+        return allocations;
+    }
+
+    // ================= EXPIRY WRITE-OFF =================
+    // Shortly after midnight: lots past their expiry date come out of stock, one transaction per medicine
+    @Scheduled(cron = "0 10 0 * * *")
+    public void writeOffExpiredLots() {
+        Map<Long, List<StockLotDTO>> expiredByMedicine = stockLotRepository.findExpiredOpenLots(LocalDate.now())
+                .stream()
+                .collect(Collectors.groupingBy(StockLotDTO::getMedicineId));
+
+        expiredByMedicine.forEach((medicineId, lots) -> transactionTemplate.executeWithoutResult(status -> {
+            int expired = lots.stream().mapToInt(StockLotDTO::getQuantity).sum();
+            // Never more than is on hand (the total may have been corrected by hand since)
+            int onHand = medicineRepository.findSummaryById(medicineId)
+                    .map(MedicineDTO::getQuantity)
+                    .orElse(0);
+            int units = Math.min(expired, onHand);
+
+            if (units > 0 && !medicineService.writeOffStock(medicineId, units)) {
+                return;
+            }
+            stockLotRepository.writeOff(lots.stream().map(StockLotDTO::getId).toList());
+        }));
+    }
+
+    // ================= RECONCILE =================
+    // Before commit, in the writing transaction, which still holds the medicine rows it updated
+    private void reconcile(List<Long> medicineIds) {
+        Set<Long> ids = new LinkedHashSet<>(medicineIds);
+        List<Long> changed = transactionTemplate.execute(status -> {
+            List<Object[]> drift = stockLotRepository.findLotDrift(ids);
+            if (drift.isEmpty()) return List.<Long>of();
+
+            stockLotRepository.topUpLots(ids);
+            trimExcess(drift);
+            return drift.stream().map(row -> (Long) row[0]).toList();
+        });
+
+        if (changed != null && !changed.isEmpty()) {
+            afterCommit(() -> changed.forEach(id -> allocator.reload(id, stockLotRepository.findLotsOfMedicine(id))));
+        }
+    }
+
+    // Total went below the lots (counted down, corrected by hand): take the difference off
+    // the lots soonest expiry first, so expired units go before sellable ones
+    private void trimExcess(List<Object[]> drift) {
+        for (Object[] row : drift) {
+            Long medicineId = (Long) row[0];
+            int excess = ((Number) row[2]).intValue() - ((Number) row[1]).intValue();
+
+            for (StockLotDTO lot : stockLotRepository.findLotsOfMedicine(medicineId)) {
+                if (excess <= 0) break;
+                int take = Math.min(lot.getQuantity(), excess);
+                if (take == 0) continue;
+                if (stockLotRepository.consume(lot.getId(), take) == 0) {
+                    throw new IllegalStateException("Stock lot " + lot.getId() + " changed concurrently");
+                }
+                excess -= take;
+            }
+        }
+    }
+
+    // ================= INTERNAL =================
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+}
@@ -0,0 +1,194 @@
+package com.company.admin.admin_backend.Service;
+
+import com.company.admin.admin_backend.dto.StockHoldDTO;
+import jakarta.annotation.PreDestroy;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Stock held for issued prescriptions, one hold per prescription item. Every hold has a
+ * timer on a single scheduler thread (a heap of deadlines) that releases it the moment it
+ * runs out, so nothing polls the table. Held totals per medicine are atomic counters:
+ * available stock (on-hand minus holds) is a read, and taking a hold is a compare-and-set.
+ */
+@Component
+public class StockReservationEngine {
+
+    private final Map<Long, Hold> holds = new ConcurrentHashMap<>();
+    private final Map<Long, AtomicInteger> heldByMedicine = new ConcurrentHashMap<>();
+    private final ScheduledThreadPoolExecutor timers;
+
+    private volatile boolean ready = false;
+
+    public StockReservationEngine() {
+        timers = new ScheduledThreadPoolExecutor(1, task -> {
+            Thread thread = new Thread(task, "stock-hold-expiry");
+            thread.setDaemon(true);
+            return thread;
+        });
+        // Redeemed holds take their timer out of the heap instead of leaving it to fire
+        timers.setRemoveOnCancelPolicy(true);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        timers.shutdownNow();
+    }
+
+    // ================= LOAD =================
+    public void load(Collection<StockHoldDTO> activeHolds) {
+        holds.keySet().forEach(this::release);
+        for (StockHoldDTO hold : activeHolds) {
+            counter(hold.getMedicineId()).addAndGet(hold.getQuantity());
+            start(new Hold(hold.getItemId(), hold.getMedicineId(), hold.getQuantity(), hold.getHeldUntil()));
+        }
+        ready = true;
+    }
+
+    // ================= READ =================
+    public boolean isReady() {
+        return ready;
+    }
+
+    public boolean isHeld(Long itemId) {
+        return holds.containsKey(itemId);
+    }
+
+    public int heldQuantity(Long medicineId) {
+        AtomicInteger held = heldByMedicine.get(medicineId);
+        return held == null ? 0 : held.get();
+    }
+
+    public int available(Long medicineId, int onHand) {
+        return Math.max(0, onHand - heldQuantity(medicineId));
+    }
+
+    // ================= HOLD =================
+    /**
+     * Holds `quantity` units for the item until `heldUntil`, if on-hand minus the holds
+     * already running covers it. Inside a transaction the hold is dropped if it rolls back.
+     */
+    public boolean hold(Long itemId, Long medicineId, int quantity, int onHand, LocalDateTime heldUntil) {
+        if (quantity <= 0 || holds.containsKey(itemId) || !heldUntil.isAfter(LocalDateTime.now())) {
+            return false;
+        }
+
+        AtomicInteger held = counter(medicineId);
+        while (true) {
+            int current = held.get();
+            if (onHand - current < quantity) return false;
+            if (held.compareAndSet(current, current + quantity)) break;
+        }
+
+        start(new Hold(itemId, medicineId, quantity, heldUntil));
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status != STATUS_COMMITTED) release(itemId);
+                }
+            });
+        }
+        return true;
+    }
+
+    /**
+     * Ends the item's hold (redeemed, or the item is gone). Returns false if none was running.
+     */
+    public boolean release(Long itemId) {
+        return remove(itemId) != null;
+    }
+
+    /**
+     * Ends the item's hold now, so the stock can be held again before the surrounding
+     * transaction commits (an item replaced in the same change). Put back if it rolls back.
+     */
+    public void releaseUntilRollback(Long itemId) {
+        Hold hold = remove(itemId);
+        if (hold == null || !TransactionSynchronizationManager.isSynchronizationActive()) return;
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status != STATUS_COMMITTED) restore(hold);
+            }
+        });
+    }
+
+    // Releases once the surrounding transaction commits (the redemption is then durable)
+    public void releaseAfterCommit(Long itemId) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            release(itemId);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                release(itemId);
+            }
+        });
+    }
+
+    // ================= INTERNAL =================
+    private Hold remove(Long itemId) {
+        Hold hold = holds.remove(itemId);
+        if (hold == null) return null;
+
+        // A timer not assigned yet finds the hold gone when it fires
+        if (hold.timer != null) hold.timer.cancel(false);
+        counter(hold.medicineId).addAndGet(-hold.quantity);
+        return hold;
+    }
+
+    // The rolled-back change never gave the stock back, so the hold returns even if that
+    // leaves the medicine over-held until the next release
+    private void restore(Hold hold) {
+        if (holds.containsKey(hold.itemId) || !hold.heldUntil.isAfter(LocalDateTime.now())) return;
+        counter(hold.medicineId).addAndGet(hold.quantity);
+        start(new Hold(hold.itemId, hold.medicineId, hold.quantity, hold.heldUntil));
+    }
+
+    private void start(Hold hold) {
+        long delay = Math.max(0, Duration.between(LocalDateTime.now(), hold.heldUntil).toMillis());
+        holds.put(hold.itemId, hold);
+        hold.timer = timers.schedule(() -> expire(hold), delay, TimeUnit.MILLISECONDS);
+    }
+
+    private void expire(Hold hold) {
+        // Only this exact hold: a redeem may already have removed it
+        if (holds.remove(hold.itemId, hold)) {
+            counter(hold.medicineId).addAndGet(-hold.quantity);
+        }
+    }
+
+    private AtomicInteger counter(Long medicineId) {
+        return heldByMedicine.computeIfAbsent(medicineId, id -> new AtomicInteger());
+    }
+
+    private static final class Hold {
+        private final Long itemId;
+        private final Long medicineId;
+        private final int quantity;
+        private final LocalDateTime heldUntil;
+        private volatile ScheduledFuture<?> timer;
+
+        private Hold(Long itemId, Long medicineId, int quantity, LocalDateTime heldUntil) {
+            this.itemId = itemId;
+            this.medicineId = medicineId;
+            this.quantity = quantity;
+            this.heldUntil = heldUntil;
+        }
+    }
+}
@@ -0,0 +1,164 @@
+package com.company.admin.admin_backend.Service;
+
+import com.company.admin.admin_backend.dto.PrescriptionRedemptionDTO;
+import com.company.admin.admin_backend.dto.StockAllocationDTO;
+import com.company.admin.admin_backend.dto.StockAvailabilityDTO;
+import com.company.admin.admin_backend.entity.Medicine;
+import com.company.admin.admin_backend.entity.PrescriptionItem;
+import com.company.admin.admin_backend.repository.MedicineRepository;
+import com.company.admin.admin_backend.repository.PrescriptionItemRepository;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Holds stock for prescription items from issue until their QR code expires, and dispenses
+ * against the hold when the QR code is redeemed. The hold is recorded on the item
+ * (heldUntil, redeemedAt); StockReservationEngine keeps the running ones and their timers.
+ */
+@Service
+public class StockReservationService {
+
+    private final PrescriptionItemRepository prescriptionItemRepository;
+    private final MedicineRepository medicineRepository;
+    private final StockReservationEngine engine;
+    private final StockLotService stockLotService;
+
+    public StockReservationService(PrescriptionItemRepository prescriptionItemRepository,
+                                   MedicineRepository medicineRepository,
+                                   StockReservationEngine engine,
+                                   StockLotService stockLotService) {
+        this.prescriptionItemRepository = prescriptionItemRepository;
+        this.medicineRepository = medicineRepository;
+        this.engine = engine;
+        this.stockLotService = stockLotService;
+    }
+
+    // ================= EVENTS =================
+    // Holds outlive restarts: the ones still running are re-armed from one query
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadActiveHolds() {
+        engine.load(prescriptionItemRepository.findActiveHolds(LocalDateTime.now()));
+    }
+
+    // ================= AVAILABILITY =================
+    public StockAvailabilityDTO getAvailability(Long medicineId) {
+        Medicine medicine = medicineRepository.findByIdAndIsDeletedFalse(medicineId)
+                .orElseThrow(() -> new RuntimeException("Medicine not found with id: " + medicineId));
+
+        int onHand = onHand(medicine);
+        int held = engine.heldQuantity(medicineId);
+        return new StockAvailabilityDTO(medicineId, onHand, held, Math.max(0, onHand - held));
+    }
+
+    // ================= HOLD =================
+    /**
+     * Marks a new item to be held when on-hand minus running holds covers it. The hold
+     * itself starts in startHolds, once the item is saved and has an id.
+     */
+    public boolean reserve(PrescriptionItem item) {
+        Medicine medicine = item.getMedicine();
+        if (medicine == null || engine.available(medicine.getId(), onHand(medicine)) < quantityOf(item)) {
+            return false;
+        }
+        item.setHeldUntil(holdExpiry(LocalDateTime.now()));
+        return true;
+    }
+
+    /**
+     * Starts the holds of saved items marked by reserve. Returns the items that lost the
+     * stock to a concurrent issue between the check and the hold; they are left unheld.
+     */
+    public List<PrescriptionItem> startHolds(Collection<PrescriptionItem> items) {
+        List<PrescriptionItem> lost = new ArrayList<>();
+        for (PrescriptionItem item : items) {
+            if (item.getHeldUntil() == null || item.getRedeemedAt() != null || engine.isHeld(item.getId())) {
+                continue;
+            }
+            Medicine medicine = item.getMedicine();
+            if (!engine.hold(item.getId(), medicine.getId(), quantityOf(item), onHand(medicine), item.getHeldUntil())) {
+                item.setHeldUntil(null);
+                lost.add(item);
+            }
+        }
+        return lost;
+    }
+
+    /**
+     * Items replaced, superseded or deleted: their stock goes back right away, so the change
+     * releasing it can hold it again, and comes back if the change rolls back.
+     */
+    public void releaseHolds(Collection<PrescriptionItem> items) {
+        for (PrescriptionItem item : items) {
+            if (item.getRedeemedAt() != null) continue;
+            if (item.getId() != null) engine.releaseUntilRollback(item.getId());
+            item.setHeldUntil(null);
+        }
+    }
+
+    // ================= REDEEM =================
+    /**
+     * Dispenses the item against its QR code, soonest-expiring lot first, and ends its hold.
+     * An item issued without a hold is redeemed only if available stock covers it now.
+     */
+    @Transactional
+    public PrescriptionRedemptionDTO redeem(PrescriptionItem item) {
+        Medicine medicine = item.getMedicine();
+        Long medicineId = medicine != null ? medicine.getId() : null;
+        int quantity = quantityOf(item);
+
+        if (medicineId == null) {
+            return rejected(item, null, quantity, "No medicine on this item");
+        }
+        if (item.getRedeemedAt() != null) {
+            return rejected(item, medicineId, quantity, "Already redeemed");
+        }
+        if (LocalDate.now().isAfter(QRCodeService.expiresOn(item.getCreatedAt()))) {
+            return rejected(item, medicineId, quantity, "Prescription QR code has expired");
+        }
+
+        boolean heldNow = false;
+        if (!engine.isHeld(item.getId())) {
+            heldNow = engine.hold(item.getId(), medicineId, quantity, onHand(medicine), holdExpiry(item.getCreatedAt()));
+            if (!heldNow) {
+                return rejected(item, medicineId, quantity, "Insufficient stock");
+            }
+        }
+
+        List<StockAllocationDTO> allocations = stockLotService.dispense(medicineId, quantity);
+        if (allocations.isEmpty()) {
+            // On-hand fell below the hold (e.g. a stock correction)
+            if (heldNow) engine.release(item.getId());
+            return rejected(item, medicineId, quantity, "Insufficient stock");
+        }
+
+        item.setRedeemedAt(LocalDateTime.now());
+        engine.releaseAfterCommit(item.getId());
+        return new PrescriptionRedemptionDTO(item.getId(), medicineId, quantity, true, null, allocations);
+    }
+
+    // ================= INTERNAL =================
+    // The QR code is valid through its expiresOn date, so the hold runs to the end of that day
+    static LocalDateTime holdExpiry(LocalDateTime issuedAt) {
+        return QRCodeService.expiresOn(issuedAt).plusDays(1).atStartOfDay();
+    }
+
+    private static int quantityOf(PrescriptionItem item) {
+        return item.getQuantity() != null ? item.getQuantity() : 1;
+    }
+
+    private static int onHand(Medicine medicine) {
+        return medicine.getQuantity() != null ? medicine.getQuantity() : 0;
+    }
+
+    private static PrescriptionRedemptionDTO rejected(PrescriptionItem item, Long medicineId, int quantity, String message) {
+        return new PrescriptionRedemptionDTO(item.getId(), medicineId, quantity, false, message, List.of());
+    }
+}
@@ -0,0 +1,75 @@
+package com.company.admin.admin_backend.Service;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Collects items while a transaction runs and hands them to the writer in one call just
+ * before it commits, still inside the transaction: whatever the writer does commits or rolls
+ * back with the writes that produced the items. Outside a transaction each item is written
+ * on its own, right away.
+ */
+final class TransactionBatch<T> {
+
+    private final int order;
+    private final Consumer<List<T>> writer;
+
+    // Lower runs first among the batches flushed by the same commit
+    TransactionBatch(int order, Consumer<List<T>> writer) {
+        this.order = order;
+        this.writer = writer;
+    }
+
+    void add(T item) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            writer.accept(List.of(item));
+            return;
+        }
+
+        @SuppressWarnings("unchecked")
+        Pending pending = (Pending) TransactionSynchronizationManager.getResource(this);
+        if (pending == null) {
+            pending = new Pending();
+            TransactionSynchronizationManager.bindResource(this, pending);
+            TransactionSynchronizationManager.registerSynchronization(pending);
+        }
+        pending.items.add(item);
+    }
+
+    // Bound to the transaction as a resource, so a REQUIRES_NEW inside it starts its own batch
+    private final class Pending implements TransactionSynchronization {
+
+        private final List<T> items = new ArrayList<>();
+
+        @Override
+        public int getOrder() {
+            return order;
+        }
+
+        @Override
+        public void suspend() {
+            TransactionSynchronizationManager.unbindResource(TransactionBatch.this);
+        }
+
+        @Override
+        public void resume() {
+            TransactionSynchronizationManager.bindResource(TransactionBatch.this, this);
+        }
+
+        @Override
+        public void beforeCommit(boolean readOnly) {
+            if (!items.isEmpty()) {
+                writer.accept(items);
+            }
+        }
+
+        @Override
+        public void afterCompletion(int status) {
+            TransactionSynchronizationManager.unbindResourceIfPossible(TransactionBatch.this);
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package com.company.admin.admin_backend.controller;
+
+import com.company.admin.admin_backend.Service.MedicineService;
+import com.company.admin.admin_backend.Service.PrescriptionService;
+import com.company.admin.admin_backend.dto.MedicineChangesDTO;
+import com.company.admin.admin_backend.dto.PrescriptionRedemptionDTO;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/machine")
+public class MachineController {
+
+    private final MedicineService medicineService;
+    private final PrescriptionService prescriptionService;
+
+    public MachineController(MedicineService medicineService, PrescriptionService prescriptionService) {
+        this.medicineService = medicineService;
+        this.prescriptionService = prescriptionService;
+    }
+
+    // 🤖 VENDING MACHINES (MACHINE_ADMIN)
+
+    // 🔄 DELTA SYNC: a machine keeps its local catalog current from the last watermark it stored
+    @GetMapping("/medicines/changes")
+    public ResponseEntity<Map<String, Object>> getMedicineChanges(
+            @RequestParam(required = false) String since) {
+
+        MedicineChangesDTO changes = medicineService.getChangesSince(since);
+
+        Map<String, Object> response = new HashMap<>();
+        response.put("success", true);
+        response.put("data", changes);
+
+        return ResponseEntity.ok(response);
+    }
+
+    // 💊 REDEEM: the machine posts the scanned QR code as is and dispenses what comes back redeemed
+    @PostMapping("/prescriptions/redeem")
+    public ResponseEntity<Map<String, Object>> redeemPrescription(@RequestBody String qrData) {
+        try {
+            List<PrescriptionRedemptionDTO> results = prescriptionService.redeemQRCode(qrData);
+
+            Map<String, Object> response = new HashMap<>();
+            response.put("success", true);
+            response.put("data", results);
+
+            return ResponseEntity.ok(response);
+        } catch (IllegalArgumentException e) {
+            Map<String, Object> response = new HashMap<>();
+            response.put("success", false);
+            response.put("message", e.getMessage());
+
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(response);
+        } catch (Exception e) {
+            Map<String, Object> response = new HashMap<>();
+            response.put("success", false);
+            response.put("message", "Error redeeming prescription");
+            response.put("error", e.getMessage());
+
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(response);
+        }
+    }
+}
@@ -1,13 +1,35 @@
 package com.company.admin.admin_backend.controller;
 
+import com.company.admin.admin_backend.Service.MedicineExportService;
+import com.company.admin.admin_backend.Service.MedicineImportService;
 import com.company.admin.admin_backend.Service.MedicineService;
+import com.company.admin.admin_backend.Service.StockAlertService;
+import com.company.admin.admin_backend.Service.StockLedgerService;
+import com.company.admin.admin_backend.Service.StockLotService;
+import com.company.admin.admin_backend.Service.StockReservationService;
 import com.company.admin.admin_backend.dto.MedicineDTO;
+import com.company.admin.admin_backend.dto.MedicineImportResultDTO;
+import com.company.admin.admin_backend.dto.MedicinePageDTO;
 import com.company.admin.admin_backend.dto.MedicineStatsDTO;
+import com.company.admin.admin_backend.dto.StockAdjustmentRequestDTO;
+import com.company.admin.admin_backend.dto.StockAdjustmentResultDTO;
+import com.company.admin.admin_backend.dto.StockAvailabilityDTO;
+import com.company.admin.admin_backend.dto.StockLotDTO;
+import com.company.admin.admin_backend.entity.StockAlert;
+import jakarta.servlet.http.HttpServletRequest;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.CacheControl;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.time.LocalDateTime;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -17,10 +39,28 @@ import java.util.Map;
 public class MedicineController {
 
     private final MedicineService medicineService;
+    private final MedicineImportService medicineImportService;
+    private final MedicineExportService medicineExportService;
+    private final StockLotService stockLotService;
+    private final StockReservationService stockReservationService;
+    private final StockLedgerService stockLedgerService;
+    private final StockAlertService stockAlertService;
 
     @Autowired
-    public MedicineController(MedicineService medicineService) {
+    public MedicineController(MedicineService medicineService,
+                              MedicineImportService medicineImportService,
+                              MedicineExportService medicineExportService,
+                              StockLotService stockLotService,
+                              StockReservationService stockReservationService,
+                              StockLedgerService stockLedgerService,
+                              StockAlertService stockAlertService) {
         this.medicineService = medicineService;
+        this.medicineImportService = medicineImportService;
+        this.medicineExportService = medicineExportService;
+        this.stockLotService = stockLotService;
+        this.stockReservationService = stockReservationService;
+        this.stockLedgerService = stockLedgerService;
+        this.stockAlertService = stockAlertService;
     }
 
     // Add new medicine
@@ -45,23 +85,103 @@ public class MedicineController {
         }
     }
 
-    // Get all medicines with optional filters
+    // Bulk import from a streamed CSV (header row) or NDJSON body
+    @PostMapping(value = "/import", consumes = {"text/csv", "application/x-ndjson"})
+    public ResponseEntity<Map<String, Object>> importMedicines(HttpServletRequest request) {
+        try {
+            String contentType = request.getContentType();
+            MedicineImportResultDTO result = contentType != null && contentType.startsWith("text/csv")
+                    ? medicineImportService.importCsv(request.getInputStream())
+                    : medicineImportService.importNdjson(request.getInputStream());
+
+            Map<String, Object> response = new HashMap<>();
+            response.put("success", result.getFailed() == 0);
+            response.put("message", result.getImported() + " medicines imported, " + result.getFailed() + " rows rejected");
+            response.put("data", result);
+
+            return ResponseEntity.ok(response);
+        } catch (IllegalArgumentException e) {
+            Map<String, Object> response = new HashMap<>();
+            response.put("success", false);
+            response.put("message", e.getMessage());
+
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(response);
+        } catch (Exception e) {
+            Map<String, Object> response = new HashMap<>();
+            response.put("success", false);
+            response.put("message", "Error importing medicines");
+            response.put("error", e.getMessage());
+
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(response);
+        }
+    }
+
+    // Audit export of the active catalog, streamed row by row (NDJSON by default, or CSV)
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportMedicines(
+            @RequestParam(required = false, defaultValue = "ndjson") String format) {
+        boolean csv = "csv".equalsIgnoreCase(format);
+        if (!csv && !"ndjson".equalsIgnoreCase(format)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "format must be csv or ndjson");
+        }
+
+        StreamingResponseBody body = csv
+                ? medicineExportService::exportCsv
+                : medicineExportService::exportNdjson;
+
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(csv ? "text/csv;charset=UTF-8" : "application/x-ndjson"))
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        "attachment; filename=\"medicines." + (csv ? "csv" : "ndjson") + "\"")
+                .body(body);
+    }
+
+    // Get all medicines with optional filters (paged when cursor or limit is given)
     @GetMapping
     public ResponseEntity<Map<String, Object>> getAllMedicines(
             @RequestParam(required = false) String search,
             @RequestParam(required = false) String category,
-            @RequestParam(required = false) String sortBy) {
+            @RequestParam(required = false) String sortBy,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit,
+            WebRequest webRequest) {
         try {
-            List<MedicineDTO> medicines = medicineService.getAllMedicines(search, category, sortBy);
+            // Unchanged catalog: 304 without running the query or building DTOs
+            String eTag = medicineService.getCatalogETag();
+            long lastModified = medicineService.getCatalogLastModified();
+            if (webRequest.checkNotModified(eTag, lastModified)) {
+                return null;
+            }
+
             MedicineStatsDTO stats = medicineService.getStats();
 
             Map<String, Object> response = new HashMap<>();
             response.put("success", true);
-            response.put("count", medicines.size());
             response.put("stats", stats);
-            response.put("data", medicines);
 
-            return ResponseEntity.ok(response);
+            if (cursor != null || limit != null) {
+                MedicinePageDTO page = medicineService.getMedicinePage(search, category, sortBy, cursor, limit);
+                response.put("count", page.getData().size());
+                response.put("data", page.getData());
+                response.put("nextCursor", page.getNextCursor());
+                response.put("hasMore", page.isHasMore());
+            } else {
+                List<MedicineDTO> medicines = medicineService.getAllMedicines(search, category, sortBy);
+                response.put("count", medicines.size());
+                response.put("data", medicines);
+            }
+
+            return ResponseEntity.ok()
+                    .eTag(eTag)
+                    .lastModified(lastModified)
+                    .cacheControl(CacheControl.noCache())
+                    .body(response);
+        } catch (ResponseStatusException e) {
+            Map<String, Object> response = new HashMap<>();
+            response.put("success", false);
+            response.put("message", e.getReason());
+
+            return ResponseEntity.status(e.getStatusCode()).body(response);
         } catch (Exception e) {
             Map<String, Object> response = new HashMap<>();
             response.put("success", false);
@@ -99,7 +219,7 @@ public class MedicineController {
         }
     }
 
-    // Update medicine
+    // Update medicine details; stock changes go through /stock-adjustments, a different quantity here is a 400
     @PutMapping("/{id}")
     public ResponseEntity<Map<String, Object>> updateMedicine(
             @PathVariable Long id,
@@ -113,6 +233,12 @@ public class MedicineController {
             response.put("data", updatedMedicine);
 
             return ResponseEntity.ok(response);
+        } catch (IllegalArgumentException e) {
+            Map<String, Object> response = new HashMap<>();
+            response.put("success", false);
+            response.put("message", e.getMessage());
+
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(response);
         } catch (RuntimeException e) {
             Map<String, Object> response = new HashMap<>();
             response.put("success", false);
@@ -156,17 +282,169 @@ public class MedicineController {
         }
     }
 
-    // Get low stock medicines
+    // Bulk stock adjustment (deltas or absolute counts) in one request
+    @PostMapping("/stock-adjustments")
+    public ResponseEntity<Map<String, Object>> adjustStock(@RequestBody StockAdjustmentRequestDTO request) {
+        try {
+            List<StockAdjustmentResultDTO> results = medicineService.adjustStock(request);
+            long applied = results.stream().filter(StockAdjustmentResultDTO::getApplied).count();
+
+            Map<String, Object> response = new HashMap<>();
+            response.put("success", applied == results.size());
+            response.put("message", applied + " of " + results.size() + " adjustments applied");
+            response.put("data", results);
+
+            return ResponseEntity.ok(response);
+        } catch (IllegalArgumentException e) {
+            Map<String, Object> response = new HashMap<>();
+            response.put("success", false);
+            response.put("message", e.getMessage());
+
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(response);
+        } catch (Exception e) {
+            Map<String, Object> response = new HashMap<>();
+            response.put("success", false);
+            response.put("message", "Error adjusting stock");
+            response.put("error", e.getMessage());
+
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(response);
+        }
+    }
+
+    // On-hand stock minus what is held for issued prescriptions
+    @GetMapping("/{id}/availability")
+    public ResponseEntity<Map<String, Object>> getStockAvailability(@PathVariable Long id) {
+        try {
+            StockAvailabilityDTO availability = stockReservationService.getAvailability(id);
+
+            Map<String, Object> response = new HashMap<>();
+            response.put("success", true);
+            response.put("data", availability);
+
+            return ResponseEntity.ok(response);
+        } catch (RuntimeException e) {
+            Map<String, Object> response = new HashMap<>();
+            response.put("success", false);
+            response.put("message", e.getMessage());
+
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(response);
+        } catch (Exception e) {
+            Map<String, Object> response = new HashMap<>();
+            response.put("success", false);
+            response.put("message", "Error fetching stock availability");
+            response.put("error", e.getMessage());
+
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(response);
+        }
+    }
+
+    // On-hand stock at a past moment, rebuilt from the movement ledger
+    @GetMapping("/{id}/stock-as-of")
+    public ResponseEntity<Map<String, Object>> getStockAsOf(
+            @PathVariable Long id,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime at) {
+        try {
+            medicineService.getMedicineById(id);
+            int quantity = stockLedgerService.getStockAsOf(id, at);
+
+            Map<String, Object> response = new HashMap<>();
+            response.put("success", true);
+            response.put("medicineId", id);
+            response.put("asOf", at);
+            response.put("quantity", quantity);
+
+            return ResponseEntity.ok(response);
+        } catch (RuntimeException e) {
+            Map<String, Object> response = new HashMap<>();
+            response.put("success", false);
+            response.put("message", e.getMessage());
+
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(response);
+        } catch (Exception e) {
+            Map<String, Object> response = new HashMap<>();
+            response.put("success", false);
+            response.put("message", "Error fetching stock history");
+            response.put("error", e.getMessage());
+
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(response);
+        }
+    }
+
+    // Stock lots of a medicine, soonest expiry first
+    @GetMapping("/{id}/lots")
+    public ResponseEntity<Map<String, Object>> getStockLots(@PathVariable Long id) {
+        try {
+            List<StockLotDTO> lots = stockLotService.getLots(id);
+
+            Map<String, Object> response = new HashMap<>();
+            response.put("success", true);
+            response.put("count", lots.size());
+            response.put("data", lots);
+
+            return ResponseEntity.ok(response);
+        } catch (RuntimeException e) {
+            Map<String, Object> response = new HashMap<>();
+            response.put("success", false);
+            response.put("message", e.getMessage());
+
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(response);
+        } catch (Exception e) {
+            Map<String, Object> response = new HashMap<>();
+            response.put("success", false);
+            response.put("message", "Error fetching stock lots");
+            response.put("error", e.getMessage());
+
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(response);
+        }
+    }
+
+    // Receive a delivery as a new lot (adds to the medicine's quantity)
+    @PostMapping("/{id}/lots")
+    public ResponseEntity<Map<String, Object>> receiveStockLot(
+            @PathVariable Long id,
+            @RequestBody StockLotDTO lotDTO) {
+        try {
+            StockLotDTO savedLot = stockLotService.receiveLot(id, lotDTO);
+
+            Map<String, Object> response = new HashMap<>();
+            response.put("success", true);
+            response.put("message", "Stock lot received successfully");
+            response.put("data", savedLot);
+
+            return ResponseEntity.status(HttpStatus.CREATED).body(response);
+        } catch (IllegalArgumentException e) {
+            Map<String, Object> response = new HashMap<>();
+            response.put("success", false);
+            response.put("message", e.getMessage());
+
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(response);
+        } catch (RuntimeException e) {
+            Map<String, Object> response = new HashMap<>();
+            response.put("success", false);
+            response.put("message", e.getMessage());
+
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(response);
+        } catch (Exception e) {
+            Map<String, Object> response = new HashMap<>();
+            response.put("success", false);
+            response.put("message", "Error receiving stock lot");
+            response.put("error", e.getMessage());
+
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(response);
+        }
+    }
+
+    // Get low stock medicines (per-medicine reorder levels unless a threshold is given)
     @GetMapping("/low-stock")
     public ResponseEntity<Map<String, Object>> getLowStockMedicines(
-            @RequestParam(required = false, defaultValue = "10") Integer threshold) {
+            @RequestParam(required = false) Integer threshold) {
         try {
             List<MedicineDTO> medicines = medicineService.getLowStockMedicines(threshold);
 
             Map<String, Object> response = new HashMap<>();
             response.put("success", true);
             response.put("count", medicines.size());
-            response.put("threshold", threshold);
+            response.put("threshold", threshold != null ? threshold : "reorderLevel");
             response.put("data", medicines);
 
             return ResponseEntity.ok(response);
@@ -180,6 +458,29 @@ public class MedicineController {
         }
     }
 
+    // Low-stock, restock and expiry alerts as they were raised, newest first
+    @GetMapping("/alerts")
+    public ResponseEntity<Map<String, Object>> getStockAlerts(
+            @RequestParam(required = false) Integer limit) {
+        try {
+            List<StockAlert> alerts = stockAlertService.getRecentAlerts(limit);
+
+            Map<String, Object> response = new HashMap<>();
+            response.put("success", true);
+            response.put("count", alerts.size());
+            response.put("data", alerts);
+
+            return ResponseEntity.ok(response);
+        } catch (Exception e) {
+            Map<String, Object> response = new HashMap<>();
+            response.put("success", false);
+            response.put("message", "Error fetching stock alerts");
+            response.put("error", e.getMessage());
+
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(response);
+        }
+    }
+
     // Get expiring medicines
     @GetMapping("/expiring")
     public ResponseEntity<Map<String, Object>> getExpiringMedicines(
@@ -224,4 +525,14 @@ public class MedicineController {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(response);
         }
     }
-}
\ No newline at end of file
+
+    // Get catalog cache hit/miss/eviction counters
+    @GetMapping("/cache-stats")
+    public ResponseEntity<Map<String, Object>> getCacheStats() {
+        Map<String, Object> response = new HashMap<>();
+        response.put("success", true);
+        response.put("data", medicineService.getCacheCounters());
+
+        return ResponseEntity.ok(response);
+    }
+}
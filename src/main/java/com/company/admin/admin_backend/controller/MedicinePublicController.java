@@ -1,9 +1,15 @@
 package com.company.admin.admin_backend.controller;
 
 import com.company.admin.admin_backend.Service.MedicineService;
+import com.company.admin.admin_backend.dto.MedicineChangesDTO;
 import com.company.admin.admin_backend.dto.MedicineDTO;
+import com.company.admin.admin_backend.dto.MedicineFacetsDTO;
+import com.company.admin.admin_backend.dto.MedicinePageDTO;
+import com.company.admin.admin_backend.dto.MedicineSuggestionDTO;
+import org.springframework.http.CacheControl;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.HashMap;
 import java.util.List;
@@ -24,15 +30,117 @@ public class MedicinePublicController {
     public ResponseEntity<Map<String, Object>> getAllMedicines(
             @RequestParam(required = false) String search,
             @RequestParam(required = false) String category,
-            @RequestParam(required = false) String sortBy) {
+            @RequestParam(required = false) String sortBy,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false, defaultValue = "false") boolean fuzzy,
+            WebRequest webRequest) {
 
-        List<MedicineDTO> medicines =
-                medicineService.getAllMedicines(search, category, sortBy);
+        // Unchanged catalog: 304 without running the query or building DTOs
+        String eTag = medicineService.getCatalogETag();
+        long lastModified = medicineService.getCatalogLastModified();
+        if (webRequest.checkNotModified(eTag, lastModified)) {
+            return null;
+        }
 
         Map<String, Object> response = new HashMap<>();
         response.put("success", true);
-        response.put("count", medicines.size());
-        response.put("data", medicines);
+
+        // Typo-tolerant mode returns ranked candidates, best match first;
+        // otherwise paged (keyset) when the client asks for it, full list by default
+        if (fuzzy && search != null && !search.isBlank()) {
+            List<MedicineDTO> medicines =
+                    medicineService.fuzzySearchMedicines(search, limit);
+            response.put("count", medicines.size());
+            response.put("data", medicines);
+        } else if (cursor != null || limit != null) {
+            MedicinePageDTO page =
+                    medicineService.getMedicinePage(search, category, sortBy, cursor, limit);
+            response.put("count", page.getData().size());
+            response.put("data", page.getData());
+            response.put("nextCursor", page.getNextCursor());
+            response.put("hasMore", page.isHasMore());
+        } else {
+            List<MedicineDTO> medicines =
+                    medicineService.getAllMedicines(search, category, sortBy);
+            response.put("count", medicines.size());
+            response.put("data", medicines);
+        }
+
+        return ResponseEntity.ok()
+                .eTag(eTag)
+                .lastModified(lastModified)
+                .cacheControl(CacheControl.noCache())
+                .body(response);
+    }
+
+    // 🧮 FILTER CHIPS (counts per category, dosage form, manufacturer, Rx, expiry bucket)
+    @GetMapping("/facets")
+    public ResponseEntity<Map<String, Object>> getFacets(
+            @RequestParam(required = false) String search,
+            @RequestParam(required = false) String category,
+            WebRequest webRequest) {
+
+        // Counts only change with the catalog
+        String eTag = medicineService.getCatalogETag();
+        long lastModified = medicineService.getCatalogLastModified();
+        if (webRequest.checkNotModified(eTag, lastModified)) {
+            return null;
+        }
+
+        MedicineFacetsDTO facets = medicineService.getFacets(search, category);
+
+        Map<String, Object> response = new HashMap<>();
+        response.put("success", true);
+        response.put("data", facets);
+
+        return ResponseEntity.ok()
+                .eTag(eTag)
+                .lastModified(lastModified)
+                .cacheControl(CacheControl.noCache())
+                .body(response);
+    }
+
+    // ⚡ AUTOCOMPLETE (prefix on medicine name)
+    @GetMapping("/suggest")
+    public ResponseEntity<Map<String, Object>> suggestMedicines(
+            @RequestParam(required = false) String prefix,
+            @RequestParam(required = false, defaultValue = "10") Integer limit) {
+
+        List<MedicineSuggestionDTO> suggestions =
+                medicineService.suggestMedicines(prefix, limit);
+
+        Map<String, Object> response = new HashMap<>();
+        response.put("success", true);
+        response.put("count", suggestions.size());
+        response.put("data", suggestions);
+
+        return ResponseEntity.ok(response);
+    }
+
+    // 🔄 DELTA SYNC (rows changed since the last watermark, deletes as tombstones)
+    @GetMapping("/changes")
+    public ResponseEntity<Map<String, Object>> getChanges(
+            @RequestParam(required = false) String since) {
+
+        MedicineChangesDTO changes = medicineService.getChangesSince(since);
+
+        Map<String, Object> response = new HashMap<>();
+        response.put("success", true);
+        response.put("data", changes);
+
+        return ResponseEntity.ok(response);
+    }
+
+    // 🔁 GENERIC EQUIVALENTS (same generic, strength and dosage form, in stock)
+    @GetMapping("/{id}/substitutes")
+    public ResponseEntity<Map<String, Object>> getSubstitutes(@PathVariable Long id) {
+        List<MedicineDTO> substitutes = medicineService.getSubstitutes(id);
+
+        Map<String, Object> response = new HashMap<>();
+        response.put("success", true);
+        response.put("count", substitutes.size());
+        response.put("data", substitutes);
 
         return ResponseEntity.ok(response);
     }
@@ -2,7 +2,9 @@ package com.company.admin.admin_backend.controller;
 
 import com.company.admin.admin_backend.Service.PrescriptionPDFService;
 import com.company.admin.admin_backend.dto.PatientDTO;
+import com.company.admin.admin_backend.dto.PrescriptionRedemptionDTO;
 import com.company.admin.admin_backend.dto.PrescriptionRequestDTO;
+import com.company.admin.admin_backend.dto.PrescriptionSummaryPageDTO;
 import com.company.admin.admin_backend.dto.PrescriptionVersionDTO;
 import com.company.admin.admin_backend.entity.Prescription;
 import com.company.admin.admin_backend.Service.PrescriptionService;
@@ -36,6 +38,24 @@ public class PrescriptionController {
         return service.getAllSortedPrescriptions();   //chages get all prescription
     }
 
+    // Paged list for the prescriptions screen; items load only when one prescription is opened
+    @GetMapping("/summaries")
+    public ResponseEntity<PrescriptionSummaryPageDTO> getPrescriptionSummaries(
+            @RequestParam(required = false) Integer page,
+            @RequestParam(required = false) Integer size) {
+        return ResponseEntity.ok(service.getPrescriptionSummaries(page, size));
+    }
+
+    @GetMapping("/{id}")
+    public ResponseEntity<?> getPrescription(@PathVariable Long id) {
+        Prescription prescription = service.getPrescriptionById(id);
+        if (prescription == null) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                    .body(Map.of("message", "Prescription not found with id: " + id));
+        }
+        return ResponseEntity.ok(prescription);
+    }
+
     @PostMapping
     public ResponseEntity<?> save(@RequestBody PrescriptionRequestDTO dto) {
         Prescription saved = service.savePrescription(dto);
@@ -100,6 +120,45 @@ public class PrescriptionController {
         }
     }
 
+    @GetMapping("/{id}/pdf/version/{versionNumber}")
+    public ResponseEntity<byte[]> downloadPrescriptionPDFByVersion(
+            @PathVariable Long id,
+            @PathVariable Integer versionNumber) {
+        try {
+            byte[] pdfBytes = pdfService.generatePrescriptionPDFByVersion(id, versionNumber);
+
+            HttpHeaders headers = new HttpHeaders();
+            headers.setContentType(MediaType.APPLICATION_PDF);
+            headers.setContentDispositionFormData("attachment",
+                    "prescription_" + id + "_v" + versionNumber + ".pdf");
+            headers.setCacheControl("must-revalidate, post-check=0, pre-check=0");
+
+            return ResponseEntity.ok()
+                    .headers(headers)
+                    .body(pdfBytes);
+        } catch (Exception e) {
+            e.printStackTrace();
+            return ResponseEntity.internalServerError().build();
+        }
+    }
+
+    // Pharmacy counter dispenses the held items by hand (machines scan the QR code at /api/machine)
+    @PostMapping("/{id}/redeem")
+    public ResponseEntity<?> redeemPrescription(@PathVariable Long id,
+                                                @RequestBody(required = false) List<Long> itemIds) {
+        try {
+            List<PrescriptionRedemptionDTO> results = service.redeemPrescription(id, itemIds);
+            return ResponseEntity.ok(results);
+        } catch (RuntimeException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                    .body(Map.of("message", e.getMessage()));
+        } catch (Exception e) {
+            e.printStackTrace();
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(Map.of("message", "Failed to redeem prescription: " + e.getMessage()));
+        }
+    }
+
     @PatchMapping("/{id}")
     public ResponseEntity<?> updatePrescription(@PathVariable Long id, @RequestBody PrescriptionRequestDTO request) {
         try {
@@ -0,0 +1,87 @@
+package com.company.admin.admin_backend.dto;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public class MedicineChangesDTO {
+
+    private List<MedicineDTO> updated;
+    private List<Tombstone> deleted;
+    private String watermark;
+    private Boolean hasMore;
+
+    // Constructors
+    public MedicineChangesDTO() {
+    }
+
+    public MedicineChangesDTO(List<MedicineDTO> updated, List<Tombstone> deleted,
+                              String watermark, Boolean hasMore) {
+        this.updated = updated;
+        this.deleted = deleted;
+        this.watermark = watermark;
+        this.hasMore = hasMore;
+    }
+
+    // Getters and Setters
+    public List<MedicineDTO> getUpdated() {
+        return updated;
+    }
+
+    public void setUpdated(List<MedicineDTO> updated) {
+        this.updated = updated;
+    }
+
+    public List<Tombstone> getDeleted() {
+        return deleted;
+    }
+
+    public void setDeleted(List<Tombstone> deleted) {
+        this.deleted = deleted;
+    }
+
+    public String getWatermark() {
+        return watermark;
+    }
+
+    public void setWatermark(String watermark) {
+        this.watermark = watermark;
+    }
+
+    public Boolean getHasMore() {
+        return hasMore;
+    }
+
+    public void setHasMore(Boolean hasMore) {
+        this.hasMore = hasMore;
+    }
+
+    // Soft-deleted medicine: clients drop it from their local copy
+    public static class Tombstone {
+        private Long id;
+        private LocalDateTime deletedAt;
+
+        public Tombstone() {
+        }
+
+        public Tombstone(Long id, LocalDateTime deletedAt) {
+            this.id = id;
+            this.deletedAt = deletedAt;
+        }
+
+        public Long getId() {
+            return id;
+        }
+
+        public void setId(Long id) {
+            this.id = id;
+        }
+
+        public LocalDateTime getDeletedAt() {
+            return deletedAt;
+        }
+
+        public void setDeletedAt(LocalDateTime deletedAt) {
+            this.deletedAt = deletedAt;
+        }
+    }
+}
@@ -1,6 +1,7 @@
 package com.company.admin.admin_backend.dto;
 
 import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.annotation.JsonInclude;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
@@ -12,6 +13,7 @@ public class MedicineDTO {
     private String genericName;
     private String manufacturer;
     private Integer quantity;
+    private Integer reorderLevel;
     private Double price;
     private String category;
     private String dosageForm;
@@ -22,6 +24,8 @@ public class MedicineDTO {
     private String strength;
     private String storageCondition;
     private Boolean prescriptionRequired = false;
+    // Only the single-item endpoint loads it; list payloads leave the key out
+    @JsonInclude(JsonInclude.Include.NON_NULL)
     private String description;
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
@@ -53,6 +57,30 @@ public class MedicineDTO {
         this.updatedAt = updatedAt;
     }
 
+    // List projection: every column except the TEXT description (see MedicineRepository)
+    public MedicineDTO(Long id, String medicineName, String genericName, String manufacturer,
+                       Integer quantity, Integer reorderLevel, Double price, String category,
+                       String dosageForm, LocalDate expiryDate, String batchNumber, String strength,
+                       String storageCondition, Boolean prescriptionRequired,
+                       LocalDateTime createdAt, LocalDateTime updatedAt) {
+        this.id = id;
+        this.medicineName = medicineName;
+        this.genericName = genericName;
+        this.manufacturer = manufacturer;
+        this.quantity = quantity;
+        this.reorderLevel = reorderLevel;
+        this.price = price;
+        this.category = category;
+        this.dosageForm = dosageForm;
+        this.expiryDate = expiryDate;
+        this.batchNumber = batchNumber;
+        this.strength = strength;
+        this.storageCondition = storageCondition;
+        this.prescriptionRequired = prescriptionRequired;
+        this.createdAt = createdAt;
+        this.updatedAt = updatedAt;
+    }
+
     // Getters and Setters
     public Long getId() {
         return id;
@@ -94,6 +122,14 @@ public class MedicineDTO {
         this.quantity = quantity;
     }
 
+    public Integer getReorderLevel() {
+        return reorderLevel;
+    }
+
+    public void setReorderLevel(Integer reorderLevel) {
+        this.reorderLevel = reorderLevel;
+    }
+
     public Double getPrice() {
         return price;
     }
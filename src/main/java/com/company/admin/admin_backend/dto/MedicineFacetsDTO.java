@@ -0,0 +1,77 @@
+package com.company.admin.admin_backend.dto;
+
+import java.util.Map;
+
+public class MedicineFacetsDTO {
+
+    private Long total;
+    private Map<String, Long> category;
+    private Map<String, Long> dosageForm;
+    private Map<String, Long> manufacturer;
+    private Map<String, Long> prescriptionRequired;
+    private Map<String, Long> expiry;
+
+    // Constructors
+    public MedicineFacetsDTO() {
+    }
+
+    public MedicineFacetsDTO(Long total, Map<String, Long> category, Map<String, Long> dosageForm,
+                             Map<String, Long> manufacturer, Map<String, Long> prescriptionRequired,
+                             Map<String, Long> expiry) {
+        this.total = total;
+        this.category = category;
+        this.dosageForm = dosageForm;
+        this.manufacturer = manufacturer;
+        this.prescriptionRequired = prescriptionRequired;
+        this.expiry = expiry;
+    }
+
+    // Getters and Setters
+    public Long getTotal() {
+        return total;
+    }
+
+    public void setTotal(Long total) {
+        this.total = total;
+    }
+
+    public Map<String, Long> getCategory() {
+        return category;
+    }
+
+    public void setCategory(Map<String, Long> category) {
+        this.category = category;
+    }
+
+    public Map<String, Long> getDosageForm() {
+        return dosageForm;
+    }
+
+    public void setDosageForm(Map<String, Long> dosageForm) {
+        this.dosageForm = dosageForm;
+    }
+
+    public Map<String, Long> getManufacturer() {
+        return manufacturer;
+    }
+
+    public void setManufacturer(Map<String, Long> manufacturer) {
+        this.manufacturer = manufacturer;
+    }
+
+    public Map<String, Long> getPrescriptionRequired() {
+        return prescriptionRequired;
+    }
+
+    public void setPrescriptionRequired(Map<String, Long> prescriptionRequired) {
+        this.prescriptionRequired = prescriptionRequired;
+    }
+
+    public Map<String, Long> getExpiry() {
+        return expiry;
+    }
+
+    public void setExpiry(Map<String, Long> expiry) {
+        this.expiry = expiry;
+    }
+}
@@ -0,0 +1,39 @@
+package com.company.admin.admin_backend.dto;
+
+import java.util.List;
+
+public class MedicinePageDTO {
+
+    private List<MedicineDTO> data;
+    private String nextCursor;
+
+    // Constructors
+    public MedicinePageDTO() {
+    }
+
+    public MedicinePageDTO(List<MedicineDTO> data, String nextCursor) {
+        this.data = data;
+        this.nextCursor = nextCursor;
+    }
+
+    // Getters and Setters
+    public List<MedicineDTO> getData() {
+        return data;
+    }
+
+    public void setData(List<MedicineDTO> data) {
+        this.data = data;
+    }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    public void setNextCursor(String nextCursor) {
+        this.nextCursor = nextCursor;
+    }
+
+    public boolean isHasMore() {
+        return nextCursor != null;
+    }
+}
@@ -0,0 +1,53 @@
+package com.company.admin.admin_backend.dto;
+
+public class MedicineSuggestionDTO {
+
+    private Long id;
+    private String medicineName;
+    private String strength;
+    private String dosageForm;
+
+    // Constructors
+    public MedicineSuggestionDTO() {
+    }
+
+    public MedicineSuggestionDTO(Long id, String medicineName, String strength, String dosageForm) {
+        this.id = id;
+        this.medicineName = medicineName;
+        this.strength = strength;
+        this.dosageForm = dosageForm;
+    }
+
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getMedicineName() {
+        return medicineName;
+    }
+
+    public void setMedicineName(String medicineName) {
+        this.medicineName = medicineName;
+    }
+
+    public String getStrength() {
+        return strength;
+    }
+
+    public void setStrength(String strength) {
+        this.strength = strength;
+    }
+
+    public String getDosageForm() {
+        return dosageForm;
+    }
+
+    public void setDosageForm(String dosageForm) {
+        this.dosageForm = dosageForm;
+    }
+}
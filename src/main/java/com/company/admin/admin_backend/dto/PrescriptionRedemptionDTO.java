@@ -0,0 +1,79 @@
+package com.company.admin.admin_backend.dto;
+
+import java.util.List;
+
+/**
+ * Outcome of redeeming one prescription item against its QR code.
+ */
+public class PrescriptionRedemptionDTO {
+
+    private Long itemId;
+    private Long medicineId;
+    private Integer quantity;
+    private Boolean redeemed;
+    private String message;
+    private List<StockAllocationDTO> allocations;
+
+    // Constructors
+    public PrescriptionRedemptionDTO() {
+    }
+
+    public PrescriptionRedemptionDTO(Long itemId, Long medicineId, Integer quantity, Boolean redeemed,
+                                     String message, List<StockAllocationDTO> allocations) {
+        this.itemId = itemId;
+        this.medicineId = medicineId;
+        this.quantity = quantity;
+        this.redeemed = redeemed;
+        this.message = message;
+        this.allocations = allocations;
+    }
+
+    // Getters and Setters
+    public Long getItemId() {
+        return itemId;
+    }
+
+    public void setItemId(Long itemId) {
+        this.itemId = itemId;
+    }
+
+    public Long getMedicineId() {
+        return medicineId;
+    }
+
+    public void setMedicineId(Long medicineId) {
+        this.medicineId = medicineId;
+    }
+
+    public Integer getQuantity() {
+        return quantity;
+    }
+
+    public void setQuantity(Integer quantity) {
+        this.quantity = quantity;
+    }
+
+    public Boolean getRedeemed() {
+        return redeemed;
+    }
+
+    public void setRedeemed(Boolean redeemed) {
+        this.redeemed = redeemed;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    public void setMessage(String message) {
+        this.message = message;
+    }
+
+    public List<StockAllocationDTO> getAllocations() {
+        return allocations;
+    }
+
+    public void setAllocations(List<StockAllocationDTO> allocations) {
+        this.allocations = allocations;
+    }
+}
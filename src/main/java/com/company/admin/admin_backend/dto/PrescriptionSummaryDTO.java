@@ -0,0 +1,98 @@
+package com.company.admin.admin_backend.dto;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+public class PrescriptionSummaryDTO {
+    private Long id;
+    private String patientName;
+    private Integer age;
+    private String gender;
+    private LocalDate visitDate;
+    private LocalDateTime lastActivityAt;
+    private Integer itemCount;
+    private Double totalAmount;
+
+    // Constructors
+    public PrescriptionSummaryDTO() {
+    }
+
+    // Summary query: item count comes from COUNT(...)
+    public PrescriptionSummaryDTO(Long id, String patientName, Integer age, String gender,
+                                  LocalDate visitDate, LocalDateTime lastActivityAt,
+                                  Long itemCount, Double totalAmount) {
+        this.id = id;
+        this.patientName = patientName;
+        this.age = age;
+        this.gender = gender;
+        this.visitDate = visitDate;
+        this.lastActivityAt = lastActivityAt;
+        this.itemCount = itemCount != null ? itemCount.intValue() : 0;
+        this.totalAmount = totalAmount;
+    }
+
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getPatientName() {
+        return patientName;
+    }
+
+    public void setPatientName(String patientName) {
+        this.patientName = patientName;
+    }
+
+    public Integer getAge() {
+        return age;
+    }
+
+    public void setAge(Integer age) {
+        this.age = age;
+    }
+
+    public String getGender() {
+        return gender;
+    }
+
+    public void setGender(String gender) {
+        this.gender = gender;
+    }
+
+    public LocalDate getVisitDate() {
+        return visitDate;
+    }
+
+    public void setVisitDate(LocalDate visitDate) {
+        this.visitDate = visitDate;
+    }
+
+    public LocalDateTime getLastActivityAt() {
+        return lastActivityAt;
+    }
+
+    public void setLastActivityAt(LocalDateTime lastActivityAt) {
+        this.lastActivityAt = lastActivityAt;
+    }
+
+    public Integer getItemCount() {
+        return itemCount;
+    }
+
+    public void setItemCount(Integer itemCount) {
+        this.itemCount = itemCount;
+    }
+
+    public Double getTotalAmount() {
+        return totalAmount;
+    }
+
+    public void setTotalAmount(Double totalAmount) {
+        this.totalAmount = totalAmount;
+    }
+}
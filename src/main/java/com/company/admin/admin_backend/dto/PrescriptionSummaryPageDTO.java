@@ -0,0 +1,55 @@
+package com.company.admin.admin_backend.dto;
+
+import java.util.List;
+
+public class PrescriptionSummaryPageDTO {
+
+    private List<PrescriptionSummaryDTO> data;
+    private int page;
+    private int size;
+    private boolean hasMore;
+
+    // Constructors
+    public PrescriptionSummaryPageDTO() {
+    }
+
+    public PrescriptionSummaryPageDTO(List<PrescriptionSummaryDTO> data, int page, int size, boolean hasMore) {
+        this.data = data;
+        this.page = page;
+        this.size = size;
+        this.hasMore = hasMore;
+    }
+
+    // Getters and Setters
+    public List<PrescriptionSummaryDTO> getData() {
+        return data;
+    }
+
+    public void setData(List<PrescriptionSummaryDTO> data) {
+        this.data = data;
+    }
+
+    public int getPage() {
+        return page;
+    }
+
+    public void setPage(int page) {
+        this.page = page;
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    public void setSize(int size) {
+        this.size = size;
+    }
+
+    public boolean isHasMore() {
+        return hasMore;
+    }
+
+    public void setHasMore(boolean hasMore) {
+        this.hasMore = hasMore;
+    }
+}
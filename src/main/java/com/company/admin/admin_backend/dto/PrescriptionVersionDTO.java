@@ -6,6 +6,8 @@ public class PrescriptionVersionDTO {
     private LocalDateTime createdAt;
     private Integer medicineCount;
     private String notes;
+    private Integer versionNumber;
+    private Double totalAmount;
 
     // No-args constructor
     public PrescriptionVersionDTO() {
@@ -18,6 +20,16 @@ public class PrescriptionVersionDTO {
         this.notes = notes;
     }
 
+    // Version summary query: item count is the one stored on the version when it was issued
+    public PrescriptionVersionDTO(LocalDateTime createdAt, Integer medicineCount, String notes,
+                                  Integer versionNumber, Double totalAmount) {
+        this.createdAt = createdAt;
+        this.medicineCount = medicineCount != null ? medicineCount : 0;
+        this.notes = notes;
+        this.versionNumber = versionNumber;
+        this.totalAmount = totalAmount;
+    }
+
     // Getters and Setters
     public LocalDateTime getCreatedAt() {
         return createdAt;
@@ -42,4 +54,20 @@ public class PrescriptionVersionDTO {
     public void setNotes(String notes) {
         this.notes = notes;
     }
-}
\ No newline at end of file
+
+    public Integer getVersionNumber() {
+        return versionNumber;
+    }
+
+    public void setVersionNumber(Integer versionNumber) {
+        this.versionNumber = versionNumber;
+    }
+
+    public Double getTotalAmount() {
+        return totalAmount;
+    }
+
+    public void setTotalAmount(Double totalAmount) {
+        this.totalAmount = totalAmount;
+    }
+}
@@ -0,0 +1,48 @@
+package com.company.admin.admin_backend.dto;
+
+import java.util.List;
+
+public class StockAdjustmentRequestDTO {
+
+    // DELTA: add each quantity (negative to remove); ABSOLUTE: set each quantity (stock count)
+    private String mode = "DELTA";
+    private List<Item> items;
+
+    // Getters and Setters
+    public String getMode() {
+        return mode;
+    }
+
+    public void setMode(String mode) {
+        this.mode = mode;
+    }
+
+    public List<Item> getItems() {
+        return items;
+    }
+
+    public void setItems(List<Item> items) {
+        this.items = items;
+    }
+
+    public static class Item {
+        private Long medicineId;
+        private Integer quantity;
+
+        public Long getMedicineId() {
+            return medicineId;
+        }
+
+        public void setMedicineId(Long medicineId) {
+            this.medicineId = medicineId;
+        }
+
+        public Integer getQuantity() {
+            return quantity;
+        }
+
+        public void setQuantity(Integer quantity) {
+            this.quantity = quantity;
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package com.company.admin.admin_backend.dto;
+
+public class StockAdjustmentResultDTO {
+
+    private Long medicineId;
+    private Integer previousQuantity;
+    private Integer quantity;
+    private Boolean applied;
+    private String message;
+
+    // Constructors
+    public StockAdjustmentResultDTO() {
+    }
+
+    public StockAdjustmentResultDTO(Long medicineId, Integer previousQuantity, Integer quantity,
+                                    Boolean applied, String message) {
+        this.medicineId = medicineId;
+        this.previousQuantity = previousQuantity;
+        this.quantity = quantity;
+        this.applied = applied;
+        this.message = message;
+    }
+
+    // Getters and Setters
+    public Long getMedicineId() {
+        return medicineId;
+    }
+
+    public void setMedicineId(Long medicineId) {
+        this.medicineId = medicineId;
+    }
+
+    public Integer getPreviousQuantity() {
+        return previousQuantity;
+    }
+
+    public void setPreviousQuantity(Integer previousQuantity) {
+        this.previousQuantity = previousQuantity;
+    }
+
+    public Integer getQuantity() {
+        return quantity;
+    }
+
+    public void setQuantity(Integer quantity) {
+        this.quantity = quantity;
+    }
+
+    public Boolean getApplied() {
+        return applied;
+    }
+
+    public void setApplied(Boolean applied) {
+        this.applied = applied;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    public void setMessage(String message) {
+        this.message = message;
+    }
+}
@@ -0,0 +1,74 @@
+package com.company.admin.admin_backend.dto;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+
+import java.time.LocalDate;
+
+/**
+ * Units taken from one stock lot for a dispense. lotId is null for units covered by
+ * the medicine's on-hand quantity but not recorded in any lot.
+ */
+public class StockAllocationDTO {
+
+    private Long medicineId;
+    private Long lotId;
+    private String batchNumber;
+
+    @JsonFormat(shape = JsonFormat.Shape.STRING, pattern = "yyyy-MM-dd")
+    private LocalDate expiryDate;
+    private Integer quantity;
+
+    // Constructors
+    public StockAllocationDTO() {
+    }
+
+    public StockAllocationDTO(Long medicineId, Long lotId, String batchNumber,
+                              LocalDate expiryDate, Integer quantity) {
+        this.medicineId = medicineId;
+        this.lotId = lotId;
+        this.batchNumber = batchNumber;
+        this.expiryDate = expiryDate;
+        this.quantity = quantity;
+    }
+
+    // Getters and Setters
+    public Long getMedicineId() {
+        return medicineId;
+    }
+
+    public void setMedicineId(Long medicineId) {
+        this.medicineId = medicineId;
+    }
+
+    public Long getLotId() {
+        return lotId;
+    }
+
+    public void setLotId(Long lotId) {
+        this.lotId = lotId;
+    }
+
+    public String getBatchNumber() {
+        return batchNumber;
+    }
+
+    public void setBatchNumber(String batchNumber) {
+        this.batchNumber = batchNumber;
+    }
+
+    public LocalDate getExpiryDate() {
+        return expiryDate;
+    }
+
+    public void setExpiryDate(LocalDate expiryDate) {
+        this.expiryDate = expiryDate;
+    }
+
+    public Integer getQuantity() {
+        return quantity;
+    }
+
+    public void setQuantity(Integer quantity) {
+        this.quantity = quantity;
+    }
+}
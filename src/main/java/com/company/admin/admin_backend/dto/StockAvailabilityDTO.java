@@ -0,0 +1,56 @@
+package com.company.admin.admin_backend.dto;
+
+/**
+ * On-hand stock of a medicine, the part held for issued prescriptions, and what is left.
+ */
+public class StockAvailabilityDTO {
+
+    private Long medicineId;
+    private Integer onHand;
+    private Integer held;
+    private Integer available;
+
+    // Constructors
+    public StockAvailabilityDTO() {
+    }
+
+    public StockAvailabilityDTO(Long medicineId, Integer onHand, Integer held, Integer available) {
+        this.medicineId = medicineId;
+        this.onHand = onHand;
+        this.held = held;
+        this.available = available;
+    }
+
+    // Getters and Setters
+    public Long getMedicineId() {
+        return medicineId;
+    }
+
+    public void setMedicineId(Long medicineId) {
+        this.medicineId = medicineId;
+    }
+
+    public Integer getOnHand() {
+        return onHand;
+    }
+
+    public void setOnHand(Integer onHand) {
+        this.onHand = onHand;
+    }
+
+    public Integer getHeld() {
+        return held;
+    }
+
+    public void setHeld(Integer held) {
+        this.held = held;
+    }
+
+    public Integer getAvailable() {
+        return available;
+    }
+
+    public void setAvailable(Integer available) {
+        this.available = available;
+    }
+}
@@ -0,0 +1,58 @@
+package com.company.admin.admin_backend.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * Stock held for one prescription item until its QR code expires.
+ */
+public class StockHoldDTO {
+
+    private Long itemId;
+    private Long medicineId;
+    private Integer quantity;
+    private LocalDateTime heldUntil;
+
+    // Constructors
+    public StockHoldDTO() {
+    }
+
+    public StockHoldDTO(Long itemId, Long medicineId, Integer quantity, LocalDateTime heldUntil) {
+        this.itemId = itemId;
+        this.medicineId = medicineId;
+        this.quantity = quantity;
+        this.heldUntil = heldUntil;
+    }
+
+    // Getters and Setters
+    public Long getItemId() {
+        return itemId;
+    }
+
+    public void setItemId(Long itemId) {
+        this.itemId = itemId;
+    }
+
+    public Long getMedicineId() {
+        return medicineId;
+    }
+
+    public void setMedicineId(Long medicineId) {
+        this.medicineId = medicineId;
+    }
+
+    public Integer getQuantity() {
+        return quantity;
+    }
+
+    public void setQuantity(Integer quantity) {
+        this.quantity = quantity;
+    }
+
+    public LocalDateTime getHeldUntil() {
+        return heldUntil;
+    }
+
+    public void setHeldUntil(LocalDateTime heldUntil) {
+        this.heldUntil = heldUntil;
+    }
+}
@@ -0,0 +1,81 @@
+package com.company.admin.admin_backend.dto;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+public class StockLotDTO {
+
+    private Long id;
+    private Long medicineId;
+    private String batchNumber;
+
+    @JsonFormat(shape = JsonFormat.Shape.STRING, pattern = "yyyy-MM-dd")
+    private LocalDate expiryDate;
+    private Integer quantity;
+    private LocalDateTime receivedAt;
+
+    // Constructors
+    public StockLotDTO() {
+    }
+
+    public StockLotDTO(Long id, Long medicineId, String batchNumber, LocalDate expiryDate,
+                       Integer quantity, LocalDateTime receivedAt) {
+        this.id = id;
+        this.medicineId = medicineId;
+        this.batchNumber = batchNumber;
+        this.expiryDate = expiryDate;
+        this.quantity = quantity;
+        this.receivedAt = receivedAt;
+    }
+
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Long getMedicineId() {
+        return medicineId;
+    }
+
+    public void setMedicineId(Long medicineId) {
+        this.medicineId = medicineId;
+    }
+
+    public String getBatchNumber() {
+        return batchNumber;
+    }
+
+    public void setBatchNumber(String batchNumber) {
+        this.batchNumber = batchNumber;
+    }
+
+    public LocalDate getExpiryDate() {
+        return expiryDate;
+    }
+
+    public void setExpiryDate(LocalDate expiryDate) {
+        this.expiryDate = expiryDate;
+    }
+
+    public Integer getQuantity() {
+        return quantity;
+    }
+
+    public void setQuantity(Integer quantity) {
+        this.quantity = quantity;
+    }
+
+    public LocalDateTime getReceivedAt() {
+        return receivedAt;
+    }
+
+    public void setReceivedAt(LocalDateTime receivedAt) {
+        this.receivedAt = receivedAt;
+    }
+}
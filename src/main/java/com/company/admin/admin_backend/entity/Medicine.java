@@ -8,7 +8,14 @@ import java.time.LocalDate;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "medicines")
+@Table(name = "medicines", indexes = {
+        // Keyset pagination: (is_deleted, sort column, id) lets each page seek straight to its start
+        @Index(name = "idx_medicines_name_page", columnList = "is_deleted, medicine_name, id"),
+        @Index(name = "idx_medicines_price_page", columnList = "is_deleted, price, id"),
+        @Index(name = "idx_medicines_quantity_page", columnList = "is_deleted, quantity, id"),
+        // Delta sync: changes since a (change_seq, id) watermark
+        @Index(name = "idx_medicines_change_seq", columnList = "change_seq, id")
+})
 public class Medicine {
 
     @Id
@@ -27,6 +34,10 @@ public class Medicine {
     @Column(name = "quantity", nullable = false)
     private Integer quantity;
 
+    // Stock at or below this level counts as low stock for this medicine
+    @Column(name = "reorder_level")
+    private Integer reorderLevel = 10;
+
     @Column(name = "price", nullable = false)
     private Double price;
 
@@ -67,6 +78,12 @@ public class Medicine {
 
     private LocalDateTime deletedAt;
 
+    // Commit-ordered delta-sync position, stamped by MedicineChangeSequence just before the
+    // changing transaction commits; rows from before the sequence existed start at 0
+    @Column(name = "change_seq", insertable = false, updatable = false,
+            columnDefinition = "BIGINT NOT NULL DEFAULT 0")
+    private Long changeSeq;
+
     @PrePersist
     protected void onCreate() {
         createdAt = LocalDateTime.now();
@@ -149,6 +166,14 @@ public class Medicine {
         this.quantity = quantity;
     }
 
+    public Integer getReorderLevel() {
+        return reorderLevel;
+    }
+
+    public void setReorderLevel(Integer reorderLevel) {
+        this.reorderLevel = reorderLevel;
+    }
+
     public Double getPrice() {
         return price;
     }
@@ -245,6 +270,10 @@ public class Medicine {
         this.updatedAt = updatedAt;
     }
 
+    public Long getChangeSeq() {
+        return changeSeq;
+    }
+
     public LocalDateTime getDeletedAt() {
         return deletedAt;
     }
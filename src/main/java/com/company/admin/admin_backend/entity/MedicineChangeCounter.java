@@ -0,0 +1,37 @@
+package com.company.admin.admin_backend.entity;
+
+import jakarta.persistence.*;
+
+/**
+ * The single row holding the last medicine change sequence handed out. Stamping a commit
+ * locks it until that commit ends, so sequence numbers become visible in the order they
+ * were taken.
+ */
+@Entity
+@Table(name = "medicine_change_counter")
+public class MedicineChangeCounter {
+
+    public static final long ROW_ID = 1L;
+
+    @Id
+    private Long id;
+
+    @Column(name = "last_seq", nullable = false)
+    private Long lastSeq;
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Long getLastSeq() {
+        return lastSeq;
+    }
+
+    public void setLastSeq(Long lastSeq) {
+        this.lastSeq = lastSeq;
+    }
+}
@@ -1,14 +1,22 @@
 package com.company.admin.admin_backend.entity;
 
+import com.company.admin.admin_backend.dto.MedicineDTO;
 import jakarta.persistence.*;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonManagedReference;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 @Entity
-@Table(name = "prescriptions")
+@Table(name = "prescriptions", indexes = {
+        // Most recently active first: the list pages walk this index backwards
+        @Index(name = "idx_prescriptions_last_activity", columnList = "last_activity_at, id")
+})
 public class Prescription {
 
     @Id
@@ -32,12 +40,26 @@ public class Prescription {
     // 🕒 Metadata
     private LocalDateTime createdAt = LocalDateTime.now();
 
+    // Time of the latest issued version (creation time until the first one)
+    @Column(name = "last_activity_at")
+    private LocalDateTime lastActivityAt = createdAt;
+
     // 💊 Medicines
     @OneToMany(mappedBy = "prescription", cascade = CascadeType.ALL, orphanRemoval = true)
 
     @JsonManagedReference
     private List<PrescriptionItem> items = new ArrayList<>();
 
+    // 🗂️ Issued versions (each save is one)
+    @OneToMany(mappedBy = "prescription", cascade = CascadeType.ALL, orphanRemoval = true)
+    @JsonIgnore
+    private List<PrescriptionVersion> versions = new ArrayList<>();
+
+    // 🔁 In-stock equivalents per prescribed medicine id whose own stock falls short (response only)
+    @Transient
+    @JsonInclude(JsonInclude.Include.NON_EMPTY)
+    private Map<Long, List<MedicineDTO>> substituteSuggestions = new HashMap<>();
+
     public Long getId() {
         return id;
     }
@@ -106,10 +128,34 @@ public class Prescription {
         this.items = items;
     }
 
+    public LocalDateTime getLastActivityAt() {
+        return lastActivityAt;
+    }
+
+    public void setLastActivityAt(LocalDateTime lastActivityAt) {
+        this.lastActivityAt = lastActivityAt;
+    }
+
     public List<PrescriptionItem> getItems() {
         return items;
     }
 
+    public List<PrescriptionVersion> getVersions() {
+        return versions;
+    }
+
+    public void setVersions(List<PrescriptionVersion> versions) {
+        this.versions = versions;
+    }
+
+    public Map<Long, List<MedicineDTO>> getSubstituteSuggestions() {
+        return substituteSuggestions;
+    }
+
+    public void setSubstituteSuggestions(Map<Long, List<MedicineDTO>> substituteSuggestions) {
+        this.substituteSuggestions = substituteSuggestions;
+    }
+
     public Double getWeight() {
         return weight;
     }
@@ -2,15 +2,27 @@ package com.company.admin.admin_backend.entity;
 
 import jakarta.persistence.*;
 import com.fasterxml.jackson.annotation.JsonBackReference;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "prescription_items")
+@Table(name = "prescription_items", indexes = {
+        // Startup reload of the holds that are still running
+        @Index(name = "idx_prescription_items_held_until", columnList = "held_until"),
+        // Items of one prescription version
+        @Index(name = "idx_prescription_items_prescription_version", columnList = "prescription_id, version_id")
+})
 public class PrescriptionItem {
 
+    public static final int ID_ALLOCATION_SIZE = 50;
+
+    // Pooled ids (one round trip per 50 items) so a prescription's items go out as one JDBC batch;
+    // MySQL has no sequences, so Hibernate keeps this one in the prescription_items_seq table
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "prescription_item_ids")
+    @SequenceGenerator(name = "prescription_item_ids", sequenceName = "prescription_items_seq",
+            allocationSize = PrescriptionItem.ID_ALLOCATION_SIZE)
     private Long id;
 
     // 🔗 Parent
@@ -20,6 +32,12 @@ public class PrescriptionItem {
     @JsonBackReference
     private Prescription prescription;
 
+    // 🗂️ Version this item was issued in
+    @ManyToOne(fetch = FetchType.LAZY, cascade = {CascadeType.PERSIST, CascadeType.MERGE})
+    @JoinColumn(name = "version_id")
+    @JsonIgnore
+    private PrescriptionVersion version;
+
     // 💊 Medicine
     @ManyToOne
     @JoinColumn(name = "medicine_id")
@@ -47,9 +65,19 @@ public class PrescriptionItem {
     @Column(name = "created_at", updatable = false)
     private LocalDateTime createdAt;
 
+    // 🔒 Stock held for this item until its QR code expires (null: nothing held)
+    @Column(name = "held_until")
+    private LocalDateTime heldUntil;
+
+    // ✅ Dispensed against the QR code
+    @Column(name = "redeemed_at")
+    private LocalDateTime redeemedAt;
+
     @PrePersist
     protected void onCreate() {
-        createdAt = LocalDateTime.now();
+        if (createdAt == null) {
+            createdAt = LocalDateTime.now();
+        }
     }
 
 
@@ -69,6 +97,14 @@ public class PrescriptionItem {
         this.prescription = prescription;
     }
 
+    public PrescriptionVersion getVersion() {
+        return version;
+    }
+
+    public void setVersion(PrescriptionVersion version) {
+        this.version = version;
+    }
+
     public Medicine getMedicine() {
         return medicine;
     }
@@ -148,5 +184,20 @@ public class PrescriptionItem {
     public void setCreatedAt(LocalDateTime createdAt) {
         this.createdAt = createdAt;
     }
-}
 
+    public LocalDateTime getHeldUntil() {
+        return heldUntil;
+    }
+
+    public void setHeldUntil(LocalDateTime heldUntil) {
+        this.heldUntil = heldUntil;
+    }
+
+    public LocalDateTime getRedeemedAt() {
+        return redeemedAt;
+    }
+
+    public void setRedeemedAt(LocalDateTime redeemedAt) {
+        this.redeemedAt = redeemedAt;
+    }
+}
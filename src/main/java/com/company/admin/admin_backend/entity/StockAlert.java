@@ -0,0 +1,122 @@
+package com.company.admin.admin_backend.entity;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * A low-stock or expiry alert as raised, kept for the admin screens. An expiry alert is
+ * stored once per medicine, mark and expiry date, however often it is raised.
+ */
+@Entity
+@Table(name = "stock_alerts", indexes = {
+        // Newest alerts first
+        @Index(name = "idx_stock_alerts_created", columnList = "created_at, id")
+}, uniqueConstraints = {
+        // Low-stock alerts have no expiry date, and NULLs never collide
+        @UniqueConstraint(name = "uk_stock_alerts_expiry", columnNames = {"medicine_id", "alert_type", "mark", "expiry_date"})
+})
+public class StockAlert {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "medicine_id", nullable = false)
+    private Long medicineId;
+
+    @Column(name = "medicine_name")
+    private String medicineName;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "alert_type", nullable = false, length = 20)
+    private StockAlertType alertType;
+
+    // On-hand quantity when the alert was raised
+    private Integer quantity;
+
+    // Expiry alerts: the 30/7/0-day mark reached, the days left and the date they count down to
+    private Integer mark;
+
+    @Column(name = "days_left")
+    private Long daysLeft;
+
+    @Column(name = "expiry_date")
+    private LocalDate expiryDate;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Long getMedicineId() {
+        return medicineId;
+    }
+
+    public void setMedicineId(Long medicineId) {
+        this.medicineId = medicineId;
+    }
+
+    public String getMedicineName() {
+        return medicineName;
+    }
+
+    public void setMedicineName(String medicineName) {
+        this.medicineName = medicineName;
+    }
+
+    public StockAlertType getAlertType() {
+        return alertType;
+    }
+
+    public void setAlertType(StockAlertType alertType) {
+        this.alertType = alertType;
+    }
+
+    public Integer getQuantity() {
+        return quantity;
+    }
+
+    public void setQuantity(Integer quantity) {
+        this.quantity = quantity;
+    }
+
+    public Integer getMark() {
+        return mark;
+    }
+
+    public void setMark(Integer mark) {
+        this.mark = mark;
+    }
+
+    public Long getDaysLeft() {
+        return daysLeft;
+    }
+
+    public void setDaysLeft(Long daysLeft) {
+        this.daysLeft = daysLeft;
+    }
+
+    public LocalDate getExpiryDate() {
+        return expiryDate;
+    }
+
+    public void setExpiryDate(LocalDate expiryDate) {
+        this.expiryDate = expiryDate;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+}
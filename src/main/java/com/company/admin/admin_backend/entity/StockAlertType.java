@@ -0,0 +1,7 @@
+package com.company.admin.admin_backend.entity;
+
+public enum StockAlertType {
+    LOW_STOCK,
+    RESTOCKED,
+    EXPIRY
+}
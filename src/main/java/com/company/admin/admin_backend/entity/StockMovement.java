@@ -0,0 +1,87 @@
+package com.company.admin.admin_backend.entity;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * One change to a medicine's on-hand stock. Rows are only ever appended (in batches,
+ * by StockLedgerService); stock at a past moment is a snapshot plus the deltas after it.
+ */
+@Entity
+@Table(name = "stock_movements", indexes = {
+        // Replay of one medicine's movements after a snapshot
+        @Index(name = "idx_stock_movements_medicine", columnList = "medicine_id, id")
+})
+public class StockMovement {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "medicine_id", nullable = false)
+    private Long medicineId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "movement_type", nullable = false, length = 20)
+    private StockMovementType movementType;
+
+    // Signed change in units
+    @Column(nullable = false)
+    private Integer delta;
+
+    // On-hand quantity right after this movement
+    @Column(name = "balance_after")
+    private Integer balanceAfter;
+
+    @Column(name = "occurred_at", nullable = false)
+    private LocalDateTime occurredAt;
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Long getMedicineId() {
+        return medicineId;
+    }
+
+    public void setMedicineId(Long medicineId) {
+        this.medicineId = medicineId;
+    }
+
+    public StockMovementType getMovementType() {
+        return movementType;
+    }
+
+    public void setMovementType(StockMovementType movementType) {
+        this.movementType = movementType;
+    }
+
+    public Integer getDelta() {
+        return delta;
+    }
+
+    public void setDelta(Integer delta) {
+        this.delta = delta;
+    }
+
+    public Integer getBalanceAfter() {
+        return balanceAfter;
+    }
+
+    public void setBalanceAfter(Integer balanceAfter) {
+        this.balanceAfter = balanceAfter;
+    }
+
+    public LocalDateTime getOccurredAt() {
+        return occurredAt;
+    }
+
+    public void setOccurredAt(LocalDateTime occurredAt) {
+        this.occurredAt = occurredAt;
+    }
+}
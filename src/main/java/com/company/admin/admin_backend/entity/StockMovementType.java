@@ -0,0 +1,8 @@
+package com.company.admin.admin_backend.entity;
+
+public enum StockMovementType {
+    RECEIPT,
+    DISPENSE,
+    ADJUSTMENT,
+    EXPIRY_WRITE_OFF
+}
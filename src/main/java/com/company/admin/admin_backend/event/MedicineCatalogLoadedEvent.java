@@ -0,0 +1,22 @@
+package com.company.admin.admin_backend.event;
+
+import com.company.admin.admin_backend.dto.MedicineDTO;
+
+import java.util.List;
+
+/**
+ * Published once on startup with every non-deleted medicine, so in-memory
+ * catalog structures can build themselves from a single table read.
+ */
+public class MedicineCatalogLoadedEvent {
+
+    private final List<MedicineDTO> medicines;
+
+    public MedicineCatalogLoadedEvent(List<MedicineDTO> medicines) {
+        this.medicines = medicines;
+    }
+
+    public List<MedicineDTO> getMedicines() {
+        return medicines;
+    }
+}
@@ -0,0 +1,49 @@
+package com.company.admin.admin_backend.event;
+
+import com.company.admin.admin_backend.dto.MedicineDTO;
+import com.company.admin.admin_backend.entity.StockMovementType;
+
+/**
+ * Published by MedicineService whenever a medicine is added, updated or deleted.
+ * "before" is null for an insert, "after" is null for a (soft) delete.
+ * "movementType" says why the quantity changed; edits and bulk adjustments are ADJUSTMENT.
+ */
+public class MedicineChangedEvent {
+
+    private final Long medicineId;
+    private final MedicineDTO before;
+    private final MedicineDTO after;
+    private final StockMovementType movementType;
+
+    public MedicineChangedEvent(Long medicineId, MedicineDTO before, MedicineDTO after) {
+        this(medicineId, before, after, StockMovementType.ADJUSTMENT);
+    }
+
+    public MedicineChangedEvent(Long medicineId, MedicineDTO before, MedicineDTO after,
+                                StockMovementType movementType) {
+        this.medicineId = medicineId;
+        this.before = before;
+        this.after = after;
+        this.movementType = movementType;
+    }
+
+    public Long getMedicineId() {
+        return medicineId;
+    }
+
+    public MedicineDTO getBefore() {
+        return before;
+    }
+
+    public MedicineDTO getAfter() {
+        return after;
+    }
+
+    public StockMovementType getMovementType() {
+        return movementType;
+    }
+
+    public boolean isDelete() {
+        return after == null;
+    }
+}
@@ -0,0 +1,32 @@
+package com.company.admin.admin_backend.event;
+
+import com.company.admin.admin_backend.dto.MedicineDTO;
+
+/**
+ * Published by MedicineExpiryCalendar when a medicine reaches the 30-day,
+ * 7-day or 0-day (expires today / already expired) mark.
+ */
+public class MedicineExpiryAlertEvent {
+
+    private final MedicineDTO medicine;
+    private final int mark;
+    private final long daysLeft;
+
+    public MedicineExpiryAlertEvent(MedicineDTO medicine, int mark, long daysLeft) {
+        this.medicine = medicine;
+        this.mark = mark;
+        this.daysLeft = daysLeft;
+    }
+
+    public MedicineDTO getMedicine() {
+        return medicine;
+    }
+
+    public int getMark() {
+        return mark;
+    }
+
+    public long getDaysLeft() {
+        return daysLeft;
+    }
+}
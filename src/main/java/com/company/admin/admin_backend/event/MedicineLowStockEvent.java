@@ -0,0 +1,26 @@
+package com.company.admin.admin_backend.event;
+
+import com.company.admin.admin_backend.dto.MedicineDTO;
+
+/**
+ * Published by LowStockWatcher only when a medicine crosses its reorder level:
+ * low = true when stock drops to or below it, false when it is restocked above it.
+ */
+public class MedicineLowStockEvent {
+
+    private final MedicineDTO medicine;
+    private final boolean low;
+
+    public MedicineLowStockEvent(MedicineDTO medicine, boolean low) {
+        this.medicine = medicine;
+        this.low = low;
+    }
+
+    public MedicineDTO getMedicine() {
+        return medicine;
+    }
+
+    public boolean isLow() {
+        return low;
+    }
+}
@@ -1,17 +1,31 @@
 package com.company.admin.admin_backend.repository;
 
+import com.company.admin.admin_backend.dto.MedicineDTO;
 import com.company.admin.admin_backend.entity.Medicine;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface MedicineRepository extends JpaRepository<Medicine, Long> {
+public interface MedicineRepository extends JpaRepository<Medicine, Long>, MedicineRepositoryCustom {
+
+    // List reads select every column but the TEXT description straight into MedicineDTO,
+    // so no managed entity is built and the description is never read off disk
+    String SUMMARY = "SELECT new com.company.admin.admin_backend.dto.MedicineDTO(" +
+            "m.id, m.medicineName, m.genericName, m.manufacturer, m.quantity, m.reorderLevel, " +
+            "m.price, m.category, m.dosageForm, m.expiryDate, m.batchNumber, m.strength, " +
+            "m.storageCondition, m.prescriptionRequired, m.createdAt, m.updatedAt) FROM Medicine m ";
 
     // Find all medicines that are not deleted
     List<Medicine> findByIsDeletedFalse();
@@ -19,24 +33,100 @@ public interface MedicineRepository extends JpaRepository<Medicine, Long> {
     // Find medicine by ID that is not deleted
     Optional<Medicine> findByIdAndIsDeletedFalse(Long id);
 
+    // Find several medicines by ID that are not deleted
+    List<Medicine> findByIdInAndIsDeletedFalse(Collection<Long> ids);
+
+    // Row locks (SELECT ... FOR UPDATE) for read-modify-write paths: the rows cannot change
+    // under us until commit, so before/after built from them are exact. Ordered by id so
+    // two batches locking overlapping rows take the locks in the same order.
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT m FROM Medicine m WHERE m.id = :id AND m.isDeleted = false")
+    Optional<Medicine> lockActiveById(@Param("id") Long id);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT m FROM Medicine m WHERE m.id IN :ids AND m.isDeleted = false ORDER BY m.id")
+    List<Medicine> lockActiveByIds(@Param("ids") Collection<Long> ids);
+
+    // One active medicine without description
+    @Query(SUMMARY + "WHERE m.id = :id AND m.isDeleted = false")
+    Optional<MedicineDTO> findSummaryById(@Param("id") Long id);
+
+    // Atomic dispense: the row is only decremented while its sellable stock covers it, so
+    // concurrent dispenses cannot oversell (0 rows = not enough stock or not found). Units in
+    // expired lots are on hand but not sellable; what is left is the unexpired lots plus the
+    // units no lot accounts for. Native SQL: Hibernate translates a JPQL UPDATE again on every
+    // execution, a noticeable share of a dispense on the hot path.
+    @Modifying
+    @Query(value = "UPDATE medicines m SET m.quantity = m.quantity - :quantity, m.updated_at = :now " +
+            "WHERE m.id = :id AND m.is_deleted = false AND m.quantity - " +
+            "(SELECT COALESCE(SUM(l.quantity), 0) FROM stock_lots l " +
+            "WHERE l.medicine_id = m.id AND l.quantity > 0 AND l.expiry_date < :today) >= :quantity",
+            nativeQuery = true)
+    int dispenseStock(@Param("id") Long id,
+                      @Param("quantity") int quantity,
+                      @Param("today") LocalDate today,
+                      @Param("now") LocalDateTime now);
+
+    // Atomic write-off: any units on hand, expired ones included (0 rows = not enough stock or not found)
+    @Modifying
+    @Query("UPDATE Medicine m SET m.quantity = m.quantity - :quantity, m.updatedAt = :now " +
+            "WHERE m.id = :id AND m.isDeleted = false AND m.quantity >= :quantity")
+    int writeOffStock(@Param("id") Long id,
+                      @Param("quantity") int quantity,
+                      @Param("now") LocalDateTime now);
+
+    // Atomic receipt (0 rows = not found)
+    @Modifying
+    @Query("UPDATE Medicine m SET m.quantity = m.quantity + :quantity, m.updatedAt = :now " +
+            "WHERE m.id = :id AND m.isDeleted = false")
+    int receiveStock(@Param("id") Long id,
+                     @Param("quantity") int quantity,
+                     @Param("now") LocalDateTime now);
+
     // Search medicines by name, generic name, or manufacturer
-    @Query("SELECT m FROM Medicine m WHERE m.isDeleted = false AND " +
+    @Query(SUMMARY + "WHERE m.isDeleted = false AND " +
             "(LOWER(m.medicineName) LIKE LOWER(CONCAT('%', :search, '%')) OR " +
             "LOWER(m.genericName) LIKE LOWER(CONCAT('%', :search, '%')) OR " +
             "LOWER(m.manufacturer) LIKE LOWER(CONCAT('%', :search, '%')))")
-    List<Medicine> searchMedicines(@Param("search") String search);
+    List<MedicineDTO> searchMedicines(@Param("search") String search);
 
     // Find by category
     List<Medicine> findByCategoryAndIsDeletedFalse(String category);
 
+    // Active medicines without description
+    @Query(SUMMARY + "WHERE m.isDeleted = false")
+    List<MedicineDTO> findActiveSummaries();
+
+    // Active medicines in a category without description
+    @Query(SUMMARY + "WHERE m.isDeleted = false AND m.category = :category")
+    List<MedicineDTO> findSummariesByCategory(@Param("category") String category);
+
     // Find low stock medicines
-    @Query("SELECT m FROM Medicine m WHERE m.isDeleted = false AND m.quantity <= :threshold")
-    List<Medicine> findLowStockMedicines(@Param("threshold") Integer threshold);
+    @Query(SUMMARY + "WHERE m.isDeleted = false AND m.quantity <= :threshold")
+    List<MedicineDTO> findLowStockMedicines(@Param("threshold") Integer threshold);
 
     // Find expiring medicines
-    @Query("SELECT m FROM Medicine m WHERE m.isDeleted = false AND " +
+    @Query(SUMMARY + "WHERE m.isDeleted = false AND " +
             "m.expiryDate BETWEEN :today AND :futureDate")
-    List<Medicine> findExpiringMedicines(
+    List<MedicineDTO> findExpiringMedicines(
+            @Param("today") LocalDate today,
+            @Param("futureDate") LocalDate futureDate
+    );
+
+    // Find medicines at or below their own reorder level
+    @Query(SUMMARY + "WHERE m.isDeleted = false AND " +
+            "m.quantity <= COALESCE(m.reorderLevel, :defaultLevel)")
+    List<MedicineDTO> findBelowReorderLevel(@Param("defaultLevel") Integer defaultLevel);
+
+    // Count medicines at or below their own reorder level without loading them
+    @Query("SELECT COUNT(m) FROM Medicine m WHERE m.isDeleted = false AND " +
+            "m.quantity <= COALESCE(m.reorderLevel, :defaultLevel)")
+    Long countBelowReorderLevel(@Param("defaultLevel") Integer defaultLevel);
+
+    // Count expiring medicines without loading them
+    @Query("SELECT COUNT(m) FROM Medicine m WHERE m.isDeleted = false AND " +
+            "m.expiryDate BETWEEN :today AND :futureDate")
+    Long countExpiringMedicines(
             @Param("today") LocalDate today,
             @Param("futureDate") LocalDate futureDate
     );
@@ -47,4 +137,66 @@ public interface MedicineRepository extends JpaRepository<Medicine, Long> {
     // Calculate total inventory value
     @Query("SELECT SUM(m.price * m.quantity) FROM Medicine m WHERE m.isDeleted = false")
     Double calculateTotalInventoryValue();
+
+    // ================= KEYSET PAGES =================
+    // Each page starts strictly after the (sort value, id) of the previous page's last row,
+    // so MySQL seeks into the matching index instead of skipping an OFFSET
+
+    @Query(SUMMARY + "WHERE m.isDeleted = false " +
+            "AND (:category IS NULL OR m.category = :category) " +
+            "AND m.id > :id " +
+            "ORDER BY m.id ASC")
+    List<MedicineDTO> findPageById(@Param("category") String category,
+                                   @Param("id") Long id,
+                                   Pageable pageable);
+
+    @Query(SUMMARY + "WHERE m.isDeleted = false " +
+            "AND (:category IS NULL OR m.category = :category) " +
+            "AND (m.medicineName > :name OR (m.medicineName = :name AND m.id > :id)) " +
+            "ORDER BY m.medicineName ASC, m.id ASC")
+    List<MedicineDTO> findPageByName(@Param("category") String category,
+                                     @Param("name") String name,
+                                     @Param("id") Long id,
+                                     Pageable pageable);
+
+    @Query(SUMMARY + "WHERE m.isDeleted = false " +
+            "AND (:category IS NULL OR m.category = :category) " +
+            "AND (m.price > :price OR (m.price = :price AND m.id > :id)) " +
+            "ORDER BY m.price ASC, m.id ASC")
+    List<MedicineDTO> findPageByPrice(@Param("category") String category,
+                                      @Param("price") Double price,
+                                      @Param("id") Long id,
+                                      Pageable pageable);
+
+    @Query(SUMMARY + "WHERE m.isDeleted = false " +
+            "AND (:category IS NULL OR m.category = :category) " +
+            "AND (m.quantity > :quantity OR (m.quantity = :quantity AND m.id > :id)) " +
+            "ORDER BY m.quantity ASC, m.id ASC")
+    List<MedicineDTO> findPageByQuantity(@Param("category") String category,
+                                         @Param("quantity") Integer quantity,
+                                         @Param("id") Long id,
+                                         Pageable pageable);
+
+    // ================= FACETS =================
+    // One grouped pass: a row per (category, dosageForm, manufacturer, prescriptionRequired,
+    // expiryDate) combination with its count; the service rolls these up per facet
+    @Query("SELECT m.category, m.dosageForm, m.manufacturer, m.prescriptionRequired, m.expiryDate, COUNT(m) " +
+            "FROM Medicine m WHERE m.isDeleted = false " +
+            "AND (:category IS NULL OR m.category = :category) " +
+            "AND (:search IS NULL OR " +
+            "LOWER(m.medicineName) LIKE LOWER(CONCAT('%', :search, '%')) OR " +
+            "LOWER(m.genericName) LIKE LOWER(CONCAT('%', :search, '%')) OR " +
+            "LOWER(m.manufacturer) LIKE LOWER(CONCAT('%', :search, '%'))) " +
+            "GROUP BY m.category, m.dosageForm, m.manufacturer, m.prescriptionRequired, m.expiryDate")
+    List<Object[]> countFacetCombinations(@Param("search") String search,
+                                          @Param("category") String category);
+
+    // ================= DELTA SYNC =================
+    // Includes soft-deleted rows: they are sent to clients as tombstones
+    @Query("SELECT m FROM Medicine m WHERE " +
+            "m.changeSeq > :seq OR (m.changeSeq = :seq AND m.id > :id) " +
+            "ORDER BY m.changeSeq ASC, m.id ASC")
+    List<Medicine> findChangesSince(@Param("seq") Long seq,
+                                    @Param("id") Long id,
+                                    Pageable pageable);
 }
@@ -0,0 +1,15 @@
+package com.company.admin.admin_backend.repository;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+public interface MedicineRepositoryCustom {
+
+    /**
+     * Applies stock changes to many medicines with one set-based UPDATE per chunk.
+     * With delta = true each value is added to the current quantity and rows that
+     * would go below zero are left untouched; otherwise each value replaces it.
+     * Returns the number of rows changed.
+     */
+    int applyStockChanges(Map<Long, Integer> changes, boolean delta, LocalDateTime updatedAt);
+}
@@ -0,0 +1,71 @@
+package com.company.admin.admin_backend.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Query;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+// Spring Data picks this up as the implementation of MedicineRepositoryCustom
+public class MedicineRepositoryImpl implements MedicineRepositoryCustom {
+
+    private static final int CHUNK_SIZE = 500;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public int applyStockChanges(Map<Long, Integer> changes, boolean delta, LocalDateTime updatedAt) {
+        List<Map.Entry<Long, Integer>> entries = new ArrayList<>(changes.entrySet());
+        int updated = 0;
+
+        for (int from = 0; from < entries.size(); from += CHUNK_SIZE) {
+            List<Map.Entry<Long, Integer>> chunk = entries.subList(from, Math.min(from + CHUNK_SIZE, entries.size()));
+            updated += applyChunk(chunk, delta, updatedAt);
+        }
+
+        // Loaded Medicine entities no longer match the table
+        entityManager.clear();
+        return updated;
+    }
+
+    // UPDATE medicines SET quantity = CASE id WHEN ? THEN <new> ... END WHERE id IN (...)
+    private int applyChunk(List<Map.Entry<Long, Integer>> chunk, boolean delta, LocalDateTime updatedAt) {
+        StringBuilder newQuantity = new StringBuilder("CASE id");
+        StringBuilder ids = new StringBuilder();
+        List<Object> params = new ArrayList<>();
+
+        for (Map.Entry<Long, Integer> entry : chunk) {
+            newQuantity.append(" WHEN ? THEN ").append(delta ? "quantity + ?" : "?");
+            params.add(entry.getKey());
+            params.add(entry.getValue());
+
+            if (ids.length() > 0) ids.append(", ");
+            ids.append(entry.getKey());
+        }
+        newQuantity.append(" END");
+
+        StringBuilder sql = new StringBuilder("UPDATE medicines SET quantity = ")
+                .append(newQuantity)
+                .append(", updated_at = ? WHERE is_deleted = false AND id IN (")
+                .append(ids)
+                .append(")");
+        List<Object> allParams = new ArrayList<>(params);
+        allParams.add(updatedAt);
+
+        if (delta) {
+            // Never let a delta take stock below zero
+            sql.append(" AND ").append(newQuantity).append(" >= 0");
+            allParams.addAll(params);
+        }
+
+        Query query = entityManager.createNativeQuery(sql.toString());
+        for (int i = 0; i < allParams.size(); i++) {
+            query.setParameter(i + 1, allParams.get(i));
+        }
+        return query.executeUpdate();
+    }
+}
@@ -1,8 +1,19 @@
 package com.company.admin.admin_backend.repository;
 
+import com.company.admin.admin_backend.dto.StockHoldDTO;
 import com.company.admin.admin_backend.entity.PrescriptionItem;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.List;
 
 public interface PrescriptionItemRepository extends JpaRepository<PrescriptionItem, Long> {
-}
 
+    // Holds still running (not expired, not redeemed), for the in-memory reservation timers
+    @Query("SELECT new com.company.admin.admin_backend.dto.StockHoldDTO(" +
+            "i.id, i.medicine.id, i.quantity, i.heldUntil) " +
+            "FROM PrescriptionItem i WHERE i.heldUntil > :now AND i.redeemedAt IS NULL")
+    List<StockHoldDTO> findActiveHolds(@Param("now") LocalDateTime now);
+}
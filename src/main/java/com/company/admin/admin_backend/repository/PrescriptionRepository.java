@@ -1,8 +1,14 @@
 package com.company.admin.admin_backend.repository;
 
+import com.company.admin.admin_backend.dto.PrescriptionSummaryDTO;
+import com.company.admin.admin_backend.dto.PrescriptionVersionDTO;
 import com.company.admin.admin_backend.entity.Prescription;
 import com.company.admin.admin_backend.entity.PrescriptionItem;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
@@ -14,43 +20,88 @@ public interface PrescriptionRepository extends JpaRepository<Prescription, Long
     @Query("SELECT p FROM Prescription p LEFT JOIN FETCH p.items i LEFT JOIN FETCH i.medicine WHERE p.id = :id")
     Optional<Prescription> findByIdWithItems(@Param("id") Long id);
 
+    // Row lock held until commit: changes to one prescription (version numbering, its holds)
+    // run one after the other
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT p FROM Prescription p WHERE p.id = :id")
+    Optional<Prescription> lockById(@Param("id") Long id);
+
+    // Highest version number by the (prescription_id, version_number) key, 0 before the first
+    @Query("SELECT COALESCE(MAX(v.versionNumber), 0) FROM PrescriptionVersion v WHERE v.prescription.id = :prescriptionId")
+    int findMaxVersionNumber(@Param("prescriptionId") Long prescriptionId);
+
+    // Latest version by its (prescription_id, version_number) key, then its items by (prescription_id, version_id)
     @Query("SELECT DISTINCT pi FROM PrescriptionItem pi " +
+            "JOIN pi.version v " +
             "LEFT JOIN FETCH pi.medicine " +
             "WHERE pi.prescription.id = :prescriptionId " +
-            "AND pi.createdAt = (SELECT MAX(pi2.createdAt) FROM PrescriptionItem pi2 " +
-            "WHERE pi2.prescription.id = :prescriptionId) " +
+            "AND v.prescription.id = :prescriptionId " +
+            "AND v.versionNumber = (SELECT MAX(v2.versionNumber) FROM PrescriptionVersion v2 " +
+            "WHERE v2.prescription.id = :prescriptionId) " +
             "ORDER BY pi.id ASC")
     List<PrescriptionItem> findLatestBatchByPrescriptionId(@Param("prescriptionId") Long prescriptionId);
 
-    @Query("""
-    SELECT p
-    FROM Prescription p
-    LEFT JOIN p.items i
-    GROUP BY p
-    ORDER BY MAX(i.createdAt) DESC
-    """)
-    List<Prescription> findAllOrderByLastItemUpdate();//chnages complete
+    // Index scan on (last_activity_at, id); no aggregation over the items
+    @Query("SELECT p FROM Prescription p ORDER BY p.lastActivityAt DESC, p.id DESC")
+    List<Prescription> findAllOrderByLastActivity();
+
+    // Prescription list page: a range of the last-activity index, item counts only for the rows on it
+    @Query("SELECT new com.company.admin.admin_backend.dto.PrescriptionSummaryDTO(" +
+            "p.id, p.patientName, p.age, p.gender, p.visitDate, p.lastActivityAt, " +
+            "(SELECT COUNT(i) FROM PrescriptionItem i WHERE i.prescription = p), p.totalAmount) " +
+            "FROM Prescription p " +
+            "ORDER BY p.lastActivityAt DESC, p.id DESC")
+    Slice<PrescriptionSummaryDTO> findSummaries(Pageable pageable);
 
     //new changes
 
-    @Query("SELECT DISTINCT pi.createdAt FROM PrescriptionItem pi " +
-            "WHERE pi.prescription.id = :prescriptionId " +
-            "ORDER BY pi.createdAt DESC")
+    @Query("SELECT v.createdAt FROM PrescriptionVersion v " +
+            "WHERE v.prescription.id = :prescriptionId " +
+            "ORDER BY v.versionNumber DESC")
     List<LocalDateTime> findAllBatchTimestamps(@Param("prescriptionId") Long prescriptionId);
 
+    /**
+     * Version history from the versions alone, newest first: each one with the item count it
+     * was issued with, including versions whose items have since been replaced
+     */
+    @Query("SELECT new com.company.admin.admin_backend.dto.PrescriptionVersionDTO(" +
+            "v.createdAt, v.itemCount, p.notes, v.versionNumber, v.totalAmount) " +
+            "FROM PrescriptionVersion v " +
+            "JOIN v.prescription p " +
+            "WHERE p.id = :prescriptionId " +
+            "ORDER BY v.versionNumber DESC")
+    List<PrescriptionVersionDTO> findVersionSummaries(@Param("prescriptionId") Long prescriptionId);
+
     /**
      * Fetch prescription items for a specific timestamp (version)
      */
     @Query("SELECT DISTINCT pi FROM PrescriptionItem pi " +
+            "JOIN pi.version v " +
             "LEFT JOIN FETCH pi.medicine " +
             "WHERE pi.prescription.id = :prescriptionId " +
-            "AND pi.createdAt = :timestamp " +
+            "AND v.prescription.id = :prescriptionId " +
+            "AND v.createdAt = :timestamp " +
             "ORDER BY pi.id ASC")
     List<PrescriptionItem> findItemsByPrescriptionIdAndTimestamp(
             @Param("prescriptionId") Long prescriptionId,
             @Param("timestamp") LocalDateTime timestamp
     );
 
+    /**
+     * Fetch prescription items for a version number
+     */
+    @Query("SELECT DISTINCT pi FROM PrescriptionItem pi " +
+            "JOIN pi.version v " +
+            "LEFT JOIN FETCH pi.medicine " +
+            "WHERE pi.prescription.id = :prescriptionId " +
+            "AND v.prescription.id = :prescriptionId " +
+            "AND v.versionNumber = :versionNumber " +
+            "ORDER BY pi.id ASC")
+    List<PrescriptionItem> findItemsByPrescriptionIdAndVersion(
+            @Param("prescriptionId") Long prescriptionId,
+            @Param("versionNumber") Integer versionNumber
+    );
+
 }
 
 
@@ -0,0 +1,20 @@
+package com.company.admin.admin_backend.repository;
+
+import com.company.admin.admin_backend.entity.StockAlert;
+import com.company.admin.admin_backend.entity.StockAlertType;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+
+import java.time.LocalDate;
+import java.util.List;
+
+public interface StockAlertRepository extends JpaRepository<StockAlert, Long> {
+
+    // Index scan on (created_at, id), newest first
+    @Query("SELECT a FROM StockAlert a ORDER BY a.createdAt DESC, a.id DESC")
+    List<StockAlert> findRecent(Pageable pageable);
+
+    boolean existsByMedicineIdAndAlertTypeAndMarkAndExpiryDate(Long medicineId, StockAlertType alertType,
+                                                                Integer mark, LocalDate expiryDate);
+}
@@ -0,0 +1,84 @@
+package com.company.admin.admin_backend.repository;
+
+import com.company.admin.admin_backend.dto.StockLotDTO;
+import com.company.admin.admin_backend.entity.StockLot;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface StockLotRepository extends JpaRepository<StockLot, Long> {
+
+    // Every lot with stock left, for the in-memory FEFO queues
+    @Query("SELECT new com.company.admin.admin_backend.dto.StockLotDTO(" +
+            "l.id, l.medicine.id, l.batchNumber, l.expiryDate, l.quantity, l.receivedAt) " +
+            "FROM StockLot l WHERE l.quantity > 0")
+    List<StockLotDTO> findOpenLots();
+
+    // Lots of one medicine, first expiry first
+    @Query("SELECT new com.company.admin.admin_backend.dto.StockLotDTO(" +
+            "l.id, l.medicine.id, l.batchNumber, l.expiryDate, l.quantity, l.receivedAt) " +
+            "FROM StockLot l WHERE l.medicine.id = :medicineId ORDER BY l.expiryDate ASC, l.id ASC")
+    List<StockLotDTO> findLotsOfMedicine(@Param("medicineId") Long medicineId);
+
+    // Lots past their expiry date with stock left, for the daily write-off
+    @Query("SELECT new com.company.admin.admin_backend.dto.StockLotDTO(" +
+            "l.id, l.medicine.id, l.batchNumber, l.expiryDate, l.quantity, l.receivedAt) " +
+            "FROM StockLot l WHERE l.quantity > 0 AND l.expiryDate < :today")
+    List<StockLotDTO> findExpiredOpenLots(@Param("today") LocalDate today);
+
+    // Empty written-off lots
+    @Modifying
+    @Query("UPDATE StockLot l SET l.quantity = 0 WHERE l.id IN :ids")
+    int writeOff(@Param("ids") Collection<Long> ids);
+
+    // Take units from a lot; 0 rows when the lot no longer holds that many. Native SQL, like
+    // the dispense decrement it follows.
+    @Modifying
+    @Query(value = "UPDATE stock_lots SET quantity = quantity - :quantity " +
+            "WHERE id = :id AND quantity >= :quantity",
+            nativeQuery = true)
+    int consume(@Param("id") Long id, @Param("quantity") Integer quantity);
+
+    // Medicines whose lots no longer add up to the on-hand total: (id, quantity, units in open lots)
+    String LOT_DRIFT = "SELECT m.id, m.quantity, " +
+            "(SELECT COALESCE(SUM(l.quantity), 0) FROM StockLot l WHERE l.medicine = m AND l.quantity > 0) " +
+            "FROM Medicine m WHERE m.isDeleted = false AND m.quantity <> " +
+            "(SELECT COALESCE(SUM(l.quantity), 0) FROM StockLot l WHERE l.medicine = m AND l.quantity > 0) ";
+
+    @Query(LOT_DRIFT + "AND m.id IN :ids")
+    List<Object[]> findLotDrift(@Param("ids") Collection<Long> ids);
+
+    @Query(LOT_DRIFT)
+    List<Object[]> findLotDrift();
+
+    // Units on hand that no lot accounts for get a lot of their own, dated by the medicine's
+    // expiry. Medicines without an expiry date keep those units unlotted.
+    @Modifying
+    @Query(value = "INSERT INTO stock_lots (medicine_id, batch_number, expiry_date, quantity, received_at) " +
+            "SELECT m.id, m.batch_number, m.expiry_date, " +
+            "m.quantity - COALESCE((SELECT SUM(l.quantity) FROM stock_lots l WHERE l.medicine_id = m.id AND l.quantity > 0), 0), " +
+            "NOW() FROM medicines m WHERE m.id IN (:ids) AND m.is_deleted = false AND m.expiry_date IS NOT NULL " +
+            "AND m.quantity > COALESCE((SELECT SUM(l.quantity) FROM stock_lots l WHERE l.medicine_id = m.id AND l.quantity > 0), 0)",
+            nativeQuery = true)
+    int topUpLots(@Param("ids") Collection<Long> ids);
+
+    // Same for the whole catalog; a medicine with no lots at all (rows from before lots existed)
+    // gets an opening lot dated when the medicine was added
+    @Modifying
+    @Query(value = "INSERT INTO stock_lots (medicine_id, batch_number, expiry_date, quantity, received_at) " +
+            "SELECT m.id, m.batch_number, m.expiry_date, " +
+            "m.quantity - COALESCE((SELECT SUM(l.quantity) FROM stock_lots l WHERE l.medicine_id = m.id AND l.quantity > 0), 0), " +
+            "CASE WHEN EXISTS (SELECT 1 FROM stock_lots l WHERE l.medicine_id = m.id) THEN NOW() " +
+            "ELSE COALESCE(m.created_at, NOW()) END " +
+            "FROM medicines m WHERE m.is_deleted = false AND m.expiry_date IS NOT NULL " +
+            "AND m.quantity > COALESCE((SELECT SUM(l.quantity) FROM stock_lots l WHERE l.medicine_id = m.id AND l.quantity > 0), 0)",
+            nativeQuery = true)
+    int topUpAllLots();
+}
@@ -0,0 +1,145 @@
+package com.company.admin.admin_backend.Service;
+
+import com.company.admin.admin_backend.entity.Medicine;
+import com.company.admin.admin_backend.event.MedicineCatalogLoadedEvent;
+import com.company.admin.admin_backend.event.MedicineChangedEvent;
+import com.company.admin.admin_backend.repository.MedicineRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.boot.jdbc.test.autoconfigure.AutoConfigureTestDatabase;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Delta-sync watermarks against a real database (H2 in MySQL mode): a change that commits
+ * late is still handed out after changes that committed before it.
+ */
+@DataJpaTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:medicine_change_seq;MODE=MySQL;LOCK_TIMEOUT=10000;DB_CLOSE_DELAY=-1",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.show-sql=false"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import(MedicineChangeSequence.class)
+class MedicineChangeSequenceTest {
+
+    @Autowired
+    private MedicineChangeSequence changeSequence;
+
+    @Autowired
+    private MedicineRepository medicineRepository;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void seedCounter() {
+        changeSequence.onCatalogLoaded(new MedicineCatalogLoadedEvent(List.of()));
+        medicineRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void longRunningTransactionIsNotSkippedByAWatermarkTakenBeforeItCommits() throws Exception {
+        Long slow = medicineRepository.save(medicine("Slow")).getId();
+        Long fast = medicineRepository.save(medicine("Fast")).getId();
+        Medicine watermark = last(changesSince(0L, 0L));
+
+        // The slow transaction writes first but commits last
+        CountDownLatch written = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<Void> slowCommit = CompletableFuture.runAsync(() ->
+                transactionTemplate.executeWithoutResult(status -> {
+                    change(slow, 5);
+                    written.countDown();
+                    await(release);
+                }));
+        assertTrue(written.await(10, TimeUnit.SECONDS));
+        transactionTemplate.executeWithoutResult(status -> change(fast, 7));
+
+        List<Medicine> firstPoll = changesSince(watermark.getChangeSeq(), watermark.getId());
+        assertEquals(List.of(fast), ids(firstPoll));
+
+        release.countDown();
+        slowCommit.get(10, TimeUnit.SECONDS);
+
+        watermark = last(firstPoll);
+        List<Medicine> secondPoll = changesSince(watermark.getChangeSeq(), watermark.getId());
+        assertEquals(List.of(slow), ids(secondPoll));
+        assertTrue(secondPoll.get(0).getChangeSeq() > watermark.getChangeSeq());
+    }
+
+    @Test
+    void rolledBackChangeKeepsItsPosition() {
+        Long id = medicineRepository.save(medicine("Rolled back")).getId();
+        Medicine watermark = last(changesSince(0L, 0L));
+
+        transactionTemplate.executeWithoutResult(status -> {
+            change(id, 3);
+            status.setRollbackOnly();
+        });
+
+        assertTrue(changesSince(watermark.getChangeSeq(), watermark.getId()).isEmpty());
+    }
+
+    private void change(Long id, int quantity) {
+        jdbcTemplate.update("UPDATE medicines SET quantity = ? WHERE id = ?", quantity, id);
+        eventPublisher.publishEvent(new MedicineChangedEvent(id, null, null));
+    }
+
+    private List<Medicine> changesSince(Long seq, Long id) {
+        return medicineRepository.findChangesSince(seq, id, PageRequest.of(0, 100));
+    }
+
+    private static Medicine last(List<Medicine> rows) {
+        return rows.get(rows.size() - 1);
+    }
+
+    private static List<Long> ids(List<Medicine> rows) {
+        return rows.stream().map(Medicine::getId).toList();
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            assertTrue(latch.await(10, TimeUnit.SECONDS));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static Medicine medicine(String name) {
+        Medicine medicine = new Medicine();
+        medicine.setMedicineName(name);
+        medicine.setQuantity(10);
+        medicine.setPrice(10.0);
+        medicine.setExpiryDate(LocalDate.now().plusYears(1));
+        medicine.setIsDeleted(false);
+        return medicine;
+    }
+}
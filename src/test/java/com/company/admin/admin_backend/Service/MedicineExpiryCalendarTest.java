@@ -0,0 +1,60 @@
+package com.company.admin.admin_backend.Service;
+
+import com.company.admin.admin_backend.dto.MedicineDTO;
+import com.company.admin.admin_backend.event.MedicineCatalogLoadedEvent;
+import com.company.admin.admin_backend.event.MedicineExpiryAlertEvent;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class MedicineExpiryCalendarTest {
+
+    private final List<MedicineExpiryAlertEvent> alerts = new ArrayList<>();
+    private final MedicineExpiryCalendar calendar = new MedicineExpiryCalendar(event -> {
+        if (event instanceof MedicineExpiryAlertEvent alert) alerts.add(alert);
+    });
+
+    @Test
+    void missedRunsDelayAlertsInsteadOfLosingThem() {
+        LocalDate today = LocalDate.now();
+        calendar.onCatalogLoaded(new MedicineCatalogLoadedEvent(List.of(
+                medicine(1L, today.plusDays(31)),
+                medicine(2L, today.plusDays(9)))));
+
+        // Startup: only what is already inside a window
+        assertEquals(1, alerts.size());
+        assertEquals(2L, alerts.get(0).getMedicine().getId());
+        assertEquals(30, alerts.get(0).getMark());
+        alerts.clear();
+
+        // The runs for today + 1 and today + 2 never happened: both crossings still come out
+        calendar.raiseAlerts(today.plusDays(3));
+        assertEquals(2, alerts.size());
+        MedicineExpiryAlertEvent thirtyDay = alerts.get(0).getMedicine().getId() == 1L ? alerts.get(0) : alerts.get(1);
+        MedicineExpiryAlertEvent sevenDay = alerts.get(0).getMedicine().getId() == 2L ? alerts.get(0) : alerts.get(1);
+        assertEquals(30, thirtyDay.getMark());
+        assertEquals(28, thirtyDay.getDaysLeft());
+        assertEquals(7, sevenDay.getMark());
+        assertEquals(6, sevenDay.getDaysLeft());
+        alerts.clear();
+
+        // Same day again, or nothing new crossed: no alerts
+        calendar.raiseAlerts(today.plusDays(3));
+        calendar.raiseAlerts(today.plusDays(4));
+        assertTrue(alerts.isEmpty());
+    }
+
+    private static MedicineDTO medicine(Long id, LocalDate expiryDate) {
+        MedicineDTO medicine = new MedicineDTO();
+        medicine.setId(id);
+        medicine.setMedicineName("Medicine " + id);
+        medicine.setQuantity(10);
+        medicine.setExpiryDate(expiryDate);
+        return medicine;
+    }
+}
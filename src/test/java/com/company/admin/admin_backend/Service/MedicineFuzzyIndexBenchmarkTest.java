@@ -0,0 +1,89 @@
+package com.company.admin.admin_backend.Service;
+
+import com.company.admin.admin_backend.dto.MedicineDTO;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Misspelled lookups against a 100k SKU catalog: the intended medicine must rank first.
+ * Every query, including broad generics that match thousands of SKUs, must answer within a
+ * few milliseconds. Runs only in the benchmark profile: mvn test -Pbenchmark
+ */
+@Tag("benchmark")
+class MedicineFuzzyIndexBenchmarkTest {
+
+    private static final int CATALOG_SIZE = 100_000;
+    // The lookup budget; measured as the median round, so a GC pause does not decide it
+    private static final double LATENCY_CEILING_MS = 5.0;
+    private static final String[] GENERICS = {
+            "amoxicillin", "paracetamol", "ibuprofen", "metformin", "atorvastatin", "azithromycin",
+            "cetirizine", "omeprazole", "pantoprazole", "losartan", "amlodipine", "clopidogrel",
+            "levothyroxine", "montelukast", "doxycycline", "ranitidine"
+    };
+
+    @Test
+    void misspelledNamesRankTheIntendedMedicineFirstUnderLatencyCeiling() {
+        List<MedicineDTO> catalog = buildCatalog();
+        MedicineFuzzyIndex index = new MedicineFuzzyIndex();
+        index.rebuild(catalog);
+
+        MedicineDTO amoxil = medicine(CATALOG_SIZE + 1, "Amoxicillin 500", "amoxicillin");
+        MedicineDTO crocin = medicine(CATALOG_SIZE + 2, "Paracetamol 650", "paracetamol");
+        index.put(amoxil);
+        index.put(crocin);
+
+        assertEquals(amoxil.getId(), index.search("amoxycilin 500", 5).get(0).getId());
+        assertEquals(crocin.getId(), index.search("paracetmol 650", 5).get(0).getId());
+        assertTrue(index.search("zzzzzz", 5).isEmpty());
+
+        index.remove(amoxil.getId());
+        assertTrue(index.search("amoxycilin 500", 5).isEmpty());
+
+        String[] queries = {"amoxycilin", "paracetmol", "ibuprofin", "metformn", "cetrizine", "azithromicin 250"};
+        int rounds = 51;
+        // Warm every query up first, so the JIT is not timed with the first one
+        for (int i = 0; i < rounds; i++) {
+            for (String query : queries) index.search(query, 20);
+        }
+        for (String query : queries) {
+            long[] nanos = new long[rounds];
+            for (int i = 0; i < rounds; i++) {
+                long start = System.nanoTime();
+                index.search(query, 20);
+                nanos[i] = System.nanoTime() - start;
+            }
+            Arrays.sort(nanos);
+            double millis = nanos[rounds / 2] / 1e6;
+
+            assertTrue(millis < LATENCY_CEILING_MS, query + " took " + millis + " ms");
+        }
+    }
+
+    // Brand names are unique words, generics repeat, strengths are numbers
+    private static List<MedicineDTO> buildCatalog() {
+        Random random = new Random(42);
+        List<MedicineDTO> catalog = new ArrayList<>(CATALOG_SIZE);
+        for (long id = 1; id <= CATALOG_SIZE; id++) {
+            String generic = GENERICS[random.nextInt(GENERICS.length)];
+            String brand = generic.substring(0, 4) + Long.toString(id, 36);
+            catalog.add(medicine(id, brand + " " + (random.nextInt(20) * 25), generic));
+        }
+        return catalog;
+    }
+
+    private static MedicineDTO medicine(long id, String name, String generic) {
+        MedicineDTO dto = new MedicineDTO();
+        dto.setId(id);
+        dto.setMedicineName(name);
+        dto.setGenericName(generic);
+        return dto;
+    }
+}
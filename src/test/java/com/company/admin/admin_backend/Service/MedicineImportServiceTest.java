@@ -0,0 +1,95 @@
+package com.company.admin.admin_backend.Service;
+
+import com.company.admin.admin_backend.dto.MedicineImportResultDTO;
+import com.company.admin.admin_backend.repository.MedicineRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.boot.jdbc.test.autoconfigure.AutoConfigureTestDatabase;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Bulk import against a real database (H2 in MySQL mode), one committed transaction per chunk.
+ */
+@DataJpaTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:medicine_import;MODE=MySQL;DB_CLOSE_DELAY=-1",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.show-sql=false"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import(MedicineImportService.class)
+class MedicineImportServiceTest {
+
+    private static final String HEADER = "medicineName,genericName,quantity,price,expiryDate\n";
+
+    @Autowired
+    private MedicineImportService importService;
+
+    @Autowired
+    private MedicineRepository medicineRepository;
+
+    @AfterEach
+    void clearMedicines() {
+        medicineRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void chunkRejectedByTheDatabaseIsReportedAndTheImportCarriesOn() throws Exception {
+        // 2,500 rows are three chunks; a name too long for its column sinks the second one
+        String tooLong = "x".repeat(300);
+        StringBuilder csv = new StringBuilder(HEADER);
+        for (int i = 1; i <= 2_500; i++) {
+            csv.append(i == 1_500 ? tooLong : "Medicine " + i).append(",Generic,10,2.5,")
+                    .append(LocalDate.now().plusYears(1)).append('\n');
+        }
+
+        MedicineImportResultDTO result = importService.importCsv(stream(csv));
+
+        assertEquals(2_500, result.getTotalRows());
+        assertEquals(1_500, result.getImported());
+        assertEquals(1_000, result.getFailed());
+        assertEquals(1_500, medicineRepository.count());
+        // CSV row numbers count the header: the second chunk is rows 1,002 to 2,001
+        assertEquals(1_002, result.getErrors().get(0).getRow());
+        assertEquals(2_001, result.getErrors().get(result.getErrors().size() - 1).getRow());
+        assertTrue(result.getErrors().get(0).getMessage().startsWith("Not imported: "));
+    }
+
+    // The import target is 10,000 rows/s; run with mvn test -Pbenchmark
+    @Test
+    @Tag("benchmark")
+    void importsAtLeastTenThousandRowsPerSecond() throws Exception {
+        StringBuilder csv = new StringBuilder(HEADER);
+        for (int i = 1; i <= 50_000; i++) {
+            csv.append("Medicine ").append(i).append(",Generic ").append(i % 500).append(",10,2.5,")
+                    .append(LocalDate.now().plusYears(1)).append('\n');
+        }
+        // Warm-up run, then the measured one
+        importService.importCsv(stream(csv));
+        medicineRepository.deleteAllInBatch();
+
+        MedicineImportResultDTO result = importService.importCsv(stream(csv));
+
+        assertEquals(50_000, result.getImported());
+        assertTrue(result.getRowsPerSecond() >= 10_000, result.getRowsPerSecond() + " rows/s");
+    }
+
+    private static ByteArrayInputStream stream(CharSequence csv) {
+        return new ByteArrayInputStream(csv.toString().getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,160 @@
+package com.company.admin.admin_backend.Service;
+
+import com.company.admin.admin_backend.dto.MedicineDTO;
+import com.company.admin.admin_backend.entity.Medicine;
+import com.company.admin.admin_backend.repository.MedicineRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.boot.jdbc.test.autoconfigure.AutoConfigureTestDatabase;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.lang.management.ManagementFactory;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Measures what dropping the TEXT description from list reads saves per /api/medicines call,
+ * against a seeded catalog in a real database (H2 in MySQL mode): the description-free
+ * projection (findActiveSummaries) versus the old path, managed entities through convertToDTO.
+ * Compares time per request, bytes allocated on the request thread to read and serialise the
+ * list, and JSON bytes on the wire.
+ * Runs only in the benchmark profile: mvn test -Pbenchmark
+ */
+@Tag("benchmark")
+@DataJpaTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:medicine_list_payload;MODE=MySQL;LOCK_TIMEOUT=10000;DB_CLOSE_DELAY=-1",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.show-sql=false"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import(MedicineService.class)
+@MockitoBean(types = {
+        MedicineSearchIndex.class, MedicineSuggestIndex.class, MedicineFuzzyIndex.class,
+        MedicineSubstitutionIndex.class, MedicineStatsTracker.class, MedicineCatalogCache.class,
+        MedicineCatalogVersion.class, MedicineExpiryCalendar.class, LowStockWatcher.class
+})
+class MedicineListPayloadBenchmarkTest {
+
+    private static final int CATALOG_SIZE = 5_000;
+    private static final int DESCRIPTION_LENGTH = 1_200;
+    private static final int WARMUP_ROUNDS = 5;
+    private static final int ROUNDS = 10;
+
+    private final JsonMapper mapper = JsonMapper.builder().build();
+
+    @Autowired
+    private MedicineRepository medicineRepository;
+
+    @Autowired
+    private MedicineService medicineService;
+
+    @BeforeEach
+    void seedCatalog() {
+        medicineRepository.deleteAllInBatch();
+        medicineRepository.saveAll(buildCatalog());
+    }
+
+    @Test
+    void summaryReadIsFasterSmallerAndAllocatesLess() {
+        Supplier<List<MedicineDTO>> entities = () -> medicineRepository.findByIsDeletedFalse().stream()
+                .map(medicineService::convertToDTO)
+                .toList();
+        Supplier<List<MedicineDTO>> summaries = () -> medicineRepository.findActiveSummaries();
+
+        String fullJson = mapper.writeValueAsString(entities.get());
+        String summaryJson = mapper.writeValueAsString(summaries.get());
+        assertTrue(fullJson.contains("\"description\":\"Take with food"));
+        assertFalse(summaryJson.contains("\"description\""));
+        assertEquals(entities.get().size(), summaries.get().size());
+
+        for (int i = 0; i < WARMUP_ROUNDS; i++) {
+            serve(entities);
+            serve(summaries);
+        }
+
+        Measurement full = measure(entities);
+        Measurement summary = measure(summaries);
+
+        assertTrue(summaryJson.length() < fullJson.length(),
+                "JSON " + summaryJson.length() + " vs " + fullJson.length() + " bytes");
+        assertTrue(summary.allocatedBytes < full.allocatedBytes,
+                "allocated " + summary.allocatedBytes + " vs " + full.allocatedBytes + " bytes per request");
+        assertTrue(summary.nanos < full.nanos,
+                "took " + summary.nanos / 1_000_000 + " vs " + full.nanos / 1_000_000 + " ms per request");
+    }
+
+    // Best time and mean allocation over the rounds: one request is the read plus the JSON body
+    private Measurement measure(Supplier<List<MedicineDTO>> read) {
+        com.sun.management.ThreadMXBean threads =
+                (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().getId();
+
+        long bestNanos = Long.MAX_VALUE;
+        long allocated = 0;
+        for (int i = 0; i < ROUNDS; i++) {
+            long bytesBefore = threads.getThreadAllocatedBytes(threadId);
+            long started = System.nanoTime();
+            serve(read);
+            bestNanos = Math.min(bestNanos, System.nanoTime() - started);
+            allocated += threads.getThreadAllocatedBytes(threadId) - bytesBefore;
+        }
+        return new Measurement(bestNanos, allocated / ROUNDS);
+    }
+
+    private byte[] serve(Supplier<List<MedicineDTO>> read) {
+        return mapper.writeValueAsBytes(read.get());
+    }
+
+    private record Measurement(long nanos, long allocatedBytes) {
+    }
+
+    private static List<Medicine> buildCatalog() {
+        Random random = new Random(7);
+        List<Medicine> catalog = new ArrayList<>(CATALOG_SIZE);
+        for (int i = 1; i <= CATALOG_SIZE; i++) {
+            Medicine medicine = new Medicine();
+            medicine.setMedicineName("Medicine " + i);
+            medicine.setGenericName("Generic " + random.nextInt(500));
+            medicine.setManufacturer("Maker " + random.nextInt(40));
+            medicine.setQuantity(random.nextInt(500));
+            medicine.setPrice(10 + random.nextInt(900) / 10.0);
+            medicine.setCategory("Tablet");
+            medicine.setDosageForm("Tablet");
+            medicine.setExpiryDate(LocalDate.of(2027, 1 + random.nextInt(12), 1));
+            medicine.setBatchNumber("B" + i);
+            medicine.setStrength("500mg");
+            medicine.setStorageCondition("Room Temperature");
+            medicine.setPrescriptionRequired(random.nextBoolean());
+            medicine.setDescription(description(random));
+            medicine.setIsDeleted(false);
+            catalog.add(medicine);
+        }
+        return catalog;
+    }
+
+    private static String description(Random random) {
+        StringBuilder text = new StringBuilder(DESCRIPTION_LENGTH);
+        while (text.length() < DESCRIPTION_LENGTH) {
+            text.append("Take with food; may cause drowsiness. ").append(random.nextInt(100)).append(' ');
+        }
+        return text.toString();
+    }
+}
@@ -0,0 +1,132 @@
+package com.company.admin.admin_backend.Service;
+
+import com.company.admin.admin_backend.dto.MedicineDTO;
+import com.company.admin.admin_backend.repository.MedicineRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.boot.jdbc.test.autoconfigure.AutoConfigureTestDatabase;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Compares the trigram index with the LIKE '%term%' repository query (searchMedicines) on a
+ * 100k SKU catalog seeded into a real database (H2 in MySQL mode). A leading wildcard cannot
+ * use an index there either, so the query scans every row as MySQL would.
+ * Runs only in the benchmark profile: mvn test -Pbenchmark
+ */
+@Tag("benchmark")
+@DataJpaTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:medicine_search;MODE=MySQL;LOCK_TIMEOUT=10000;DB_CLOSE_DELAY=-1",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.show-sql=false"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class MedicineSearchIndexBenchmarkTest {
+
+    private static final int CATALOG_SIZE = 100_000;
+    private static final int INSERT_BATCH = 5_000;
+    private static final String[] STEMS = {
+            "amoxi", "parace", "ibupro", "metfor", "atorva", "azithro", "cetiri", "omepra",
+            "pantop", "losart", "amlodi", "clopid", "levoth", "montel", "doxycy", "ranitid"
+    };
+    private static final String[] MAKERS = {
+            "Cipla", "Sun Pharma", "Dr Reddy", "Lupin", "Mankind", "Torrent", "Zydus", "Abbott"
+    };
+
+    @Autowired
+    private MedicineRepository medicineRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void seedCatalog() {
+        medicineRepository.deleteAllInBatch();
+
+        Random random = new Random(42);
+        Date expiry = Date.valueOf(LocalDate.now().plusYears(1));
+        List<Object[]> rows = new ArrayList<>(INSERT_BATCH);
+        for (long id = 1; id <= CATALOG_SIZE; id++) {
+            String stem = STEMS[random.nextInt(STEMS.length)];
+            rows.add(new Object[]{
+                    stem + Long.toString(id, 36) + " Tab " + (random.nextInt(20) * 25),
+                    stem + "l " + random.nextInt(1000),
+                    MAKERS[random.nextInt(MAKERS.length)],
+                    expiry
+            });
+            if (rows.size() == INSERT_BATCH) {
+                insert(rows);
+                rows.clear();
+            }
+        }
+        insert(rows);
+    }
+
+    @Test
+    void indexMatchesLikeQueryAndAnswersSelectiveLookupsUnderAMillisecond() {
+        // Built the way it is at startup: from the active summaries
+        MedicineSearchIndex index = new MedicineSearchIndex();
+        index.rebuild(medicineRepository.findActiveSummaries());
+
+        // Selective brand lookups, as typed in the prescription screen
+        String[] selective = {"amoxi2f9", "ibupro1a", "metfor7k", "zz9"};
+        // Broad terms that match a large share of the catalog
+        String[] broad = {"atorva", "zydus", "ce"};
+
+        for (String query : selective) {
+            assertEquals(ids(medicineRepository.searchMedicines(query)), ids(index.search(query)), "query: " + query);
+        }
+        for (String query : broad) {
+            assertEquals(ids(medicineRepository.searchMedicines(query)), ids(index.search(query)), "query: " + query);
+        }
+
+        int likeRounds = 5;
+        int indexRounds = 20;
+        for (String query : selective) {
+            long likeNanos = time(() -> {
+                for (int i = 0; i < likeRounds; i++) medicineRepository.searchMedicines(query);
+            }) / likeRounds;
+            long indexNanos = time(() -> {
+                for (int i = 0; i < indexRounds; i++) index.search(query);
+            }) / indexRounds;
+
+            assertTrue(indexNanos < likeNanos,
+                    "index " + indexNanos + " ns vs LIKE query " + likeNanos + " ns for " + query);
+            assertTrue(indexNanos < 1_000_000, "index lookup for " + query + " took " + indexNanos + " ns");
+        }
+    }
+
+    private void insert(List<Object[]> rows) {
+        jdbcTemplate.batchUpdate("INSERT INTO medicines (medicine_name, generic_name, manufacturer, " +
+                "quantity, price, expiry_date, is_deleted) VALUES (?, ?, ?, 10, 5.0, ?, false)", rows);
+    }
+
+    // Sorted: the query has no ORDER BY
+    private static List<Long> ids(List<MedicineDTO> medicines) {
+        return medicines.stream().map(MedicineDTO::getId).sorted().toList();
+    }
+
+    private static long time(Runnable work) {
+        work.run(); // warm-up
+        long start = System.nanoTime();
+        work.run();
+        return System.nanoTime() - start;
+    }
+}
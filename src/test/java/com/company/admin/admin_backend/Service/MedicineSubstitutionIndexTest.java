@@ -0,0 +1,64 @@
+package com.company.admin.admin_backend.Service;
+
+import com.company.admin.admin_backend.dto.MedicineDTO;
+import com.company.admin.admin_backend.dto.StockLotDTO;
+import com.company.admin.admin_backend.event.MedicineCatalogLoadedEvent;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class MedicineSubstitutionIndexTest {
+
+    private final StockReservationEngine engine = new StockReservationEngine();
+    private final StockLotAllocator allocator = new StockLotAllocator();
+    private final MedicineSubstitutionIndex index = new MedicineSubstitutionIndex(engine, allocator);
+
+    @AfterEach
+    void stopTimers() {
+        engine.shutdown();
+    }
+
+    @Test
+    void heldAndExpiredUnitsAreNotOfferedAsStock() {
+        LocalDate today = LocalDate.now();
+        index.onCatalogLoaded(new MedicineCatalogLoadedEvent(List.of(
+                medicine(1L, 0, 1.0),
+                medicine(2L, 10, 2.0),   // all held
+                medicine(3L, 10, 3.0),   // 8 units in an expired lot
+                medicine(4L, 10, 4.0))));
+        engine.load(List.of());
+        assertTrue(engine.hold(100L, 2L, 10, 10, LocalDateTime.now().plusDays(1)));
+        allocator.load(List.of(
+                new StockLotDTO(1L, 3L, "OLD", today.minusDays(1), 8, null),
+                new StockLotDTO(2L, 3L, "NEW", today.plusDays(60), 2, null)));
+
+        assertEquals(List.of(3L, 4L), ids(index.substitutesCovering(1L, 2)));
+        assertEquals(List.of(4L), ids(index.substitutesCovering(1L, 3)));
+
+        // Expired lots the allocator has already stepped over still count as expired
+        allocator.allocate(3L, 1, today);
+        assertEquals(List.of(4L), ids(index.substitutesCovering(1L, 3)));
+    }
+
+    private static List<Long> ids(List<MedicineDTO> medicines) {
+        return medicines.stream().map(MedicineDTO::getId).toList();
+    }
+
+    private static MedicineDTO medicine(Long id, int quantity, double price) {
+        MedicineDTO medicine = new MedicineDTO();
+        medicine.setId(id);
+        medicine.setMedicineName("Paracetamol " + id);
+        medicine.setGenericName("Paracetamol");
+        medicine.setStrength("500 mg");
+        medicine.setDosageForm("Tablet");
+        medicine.setQuantity(quantity);
+        medicine.setPrice(price);
+        return medicine;
+    }
+}
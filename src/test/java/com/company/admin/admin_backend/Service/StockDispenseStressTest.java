@@ -0,0 +1,317 @@
+package com.company.admin.admin_backend.Service;
+
+import com.company.admin.admin_backend.dto.StockAdjustmentRequestDTO;
+import com.company.admin.admin_backend.dto.StockAdjustmentResultDTO;
+import com.company.admin.admin_backend.dto.StockAllocationDTO;
+import com.company.admin.admin_backend.dto.StockLotDTO;
+import com.company.admin.admin_backend.entity.Medicine;
+import com.company.admin.admin_backend.entity.StockLot;
+import com.company.admin.admin_backend.event.MedicineCatalogLoadedEvent;
+import com.company.admin.admin_backend.repository.MedicineRepository;
+import com.company.admin.admin_backend.repository.StockLotRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.boot.jdbc.test.autoconfigure.AutoConfigureTestDatabase;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Many threads dispensing one hot SKU at once, against a real database (H2 in MySQL mode)
+ * and the real guarded UPDATEs, each dispense in its own committed transaction. Nothing may
+ * be oversold, expired units never leave, units without a lot are capped at what no lot
+ * accounts for, and lots drain soonest-expiry first. The commit path is the production one:
+ * lot reconcile, change sequence stamp and ledger write all run before each dispense commits,
+ * and a hot SKU still has to sustain hundreds of dispenses a second through them.
+ */
+@DataJpaTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:stock_dispense;MODE=MySQL;LOCK_TIMEOUT=10000;DB_CLOSE_DELAY=-1",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.show-sql=false"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import({MedicineService.class, StockLotService.class, StockLotAllocator.class,
+        MedicineChangeSequence.class, StockLedgerService.class})
+@MockitoBean(types = {
+        MedicineSearchIndex.class, MedicineSuggestIndex.class, MedicineFuzzyIndex.class,
+        MedicineSubstitutionIndex.class, MedicineStatsTracker.class, MedicineCatalogCache.class,
+        MedicineCatalogVersion.class, MedicineExpiryCalendar.class, LowStockWatcher.class
+})
+class StockDispenseStressTest {
+
+    private static final int THREADS = 16;
+    private static final int ATTEMPTS_PER_THREAD = 100;
+    private static final int EXPIRED_UNITS = 50;
+    private static final int LOT_UNITS = 200;
+    private static final int UNLOTTED_UNITS = 50;
+    private static final int DISPENSES_PER_THREAD = 50;
+    private static final int MEASURED_ROUNDS = 3;
+    private static final int MIN_DISPENSES_PER_SECOND = 200;
+
+    @Autowired
+    private MedicineRepository medicineRepository;
+
+    @Autowired
+    private StockLotRepository stockLotRepository;
+
+    @Autowired
+    private MedicineService medicineService;
+
+    @Autowired
+    private StockLotService stockLotService;
+
+    @Autowired
+    private StockLotAllocator allocator;
+
+    @Autowired
+    private MedicineChangeSequence changeSequence;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void seedCounter() {
+        changeSequence.onCatalogLoaded(new MedicineCatalogLoadedEvent(List.of()));
+    }
+
+    @Test
+    void concurrentDispensesNeverOversellOrSellExpiredStock() throws Exception {
+        LocalDate today = LocalDate.now();
+        int initialStock = EXPIRED_UNITS + 3 * LOT_UNITS + UNLOTTED_UNITS;
+
+        Medicine medicine = medicineRepository.save(medicine("Hot SKU", initialStock, today.plusDays(365)));
+        Long medicineId = medicine.getId();
+        Long expiredLot = lot(medicine, today.minusDays(1), EXPIRED_UNITS);
+        List<Long> sellableLots = List.of(
+                lot(medicine, today.plusDays(30), LOT_UNITS),
+                lot(medicine, today.plusDays(90), LOT_UNITS),
+                lot(medicine, today.plusDays(365), LOT_UNITS));
+        allocator.load(stockLotRepository.findOpenLots());
+
+        AtomicLong dispensedUnits = new AtomicLong();
+        AtomicLong dispenses = new AtomicLong();
+        AtomicLong withoutLot = new AtomicLong();
+        Map<Long, AtomicLong> perLot = new ConcurrentHashMap<>();
+
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            Random random = new Random(t);
+            futures.add(pool.submit(() -> {
+                start.await();
+                for (int i = 0; i < ATTEMPTS_PER_THREAD; i++) {
+                    int quantity = 1 + random.nextInt(4);
+                    List<StockAllocationDTO> allocations = stockLotService.dispense(medicineId, quantity);
+                    if (allocations.isEmpty()) continue;
+
+                    dispensedUnits.addAndGet(quantity);
+                    dispenses.incrementAndGet();
+                    int allocated = 0;
+                    for (StockAllocationDTO allocation : allocations) {
+                        allocated += allocation.getQuantity();
+                        if (allocation.getLotId() == null) {
+                            withoutLot.addAndGet(allocation.getQuantity());
+                        } else {
+                            perLot.computeIfAbsent(allocation.getLotId(), id -> new AtomicLong())
+                                    .addAndGet(allocation.getQuantity());
+                        }
+                    }
+                    assertEquals(quantity, allocated);
+                }
+                return null;
+            }));
+        }
+
+        start.countDown();
+        try {
+            for (Future<?> future : futures) future.get(120, TimeUnit.SECONDS);
+        } finally {
+            pool.shutdownNow();
+        }
+
+        // Every unit that left the total was handed out exactly once, and demand far exceeds
+        // stock, so only the expired units (plus less than one dispense) are left
+        int remaining = quantityOf(medicineId);
+        assertEquals(initialStock - remaining, dispensedUnits.get());
+        assertTrue(remaining >= EXPIRED_UNITS, "expired units were sold");
+        assertTrue(remaining - EXPIRED_UNITS < 4, "sellable stock left over: " + (remaining - EXPIRED_UNITS));
+        assertTrue(withoutLot.get() <= UNLOTTED_UNITS, "sold more without a lot than was unlotted");
+
+        // One ledger movement and one change sequence number per dispense, nothing lost
+        assertEquals(dispenses.get(), jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM stock_movements WHERE medicine_id = ? AND movement_type = 'DISPENSE'",
+                Long.class, medicineId));
+        assertEquals(-dispensedUnits.get(), jdbcTemplate.queryForObject(
+                "SELECT SUM(delta) FROM stock_movements WHERE medicine_id = ?", Long.class, medicineId));
+        assertEquals(jdbcTemplate.queryForObject("SELECT last_seq FROM medicine_change_counter", Long.class),
+                jdbcTemplate.queryForObject("SELECT change_seq FROM medicines WHERE id = ?", Long.class, medicineId));
+
+        Map<Long, Integer> lotRows = lotQuantities(medicineId);
+        assertEquals(EXPIRED_UNITS, lotRows.get(expiredLot));
+        assertFalse(perLot.containsKey(expiredLot));
+        for (Long lotId : sellableLots) {
+            assertEquals(LOT_UNITS - perLot.getOrDefault(lotId, new AtomicLong()).get(), lotRows.get(lotId).longValue());
+            assertEquals(0, lotRows.get(lotId));
+        }
+    }
+
+    // The hot-SKU target is hundreds of dispenses/s; run with mvn test -Pbenchmark
+    @Test
+    @Tag("benchmark")
+    void hotSkuSustainsHundredsOfDispensesASecond() throws Exception {
+        LocalDate today = LocalDate.now();
+        int rounds = 1 + MEASURED_ROUNDS;
+        int stock = rounds * THREADS * DISPENSES_PER_THREAD;
+        Medicine medicine = medicineRepository.save(medicine("Busy SKU", stock, today.plusDays(365)));
+        Long medicineId = medicine.getId();
+        lot(medicine, today.plusDays(90), stock);
+        allocator.load(stockLotRepository.findOpenLots());
+
+        // The first round only warms the JIT; the best of the others is the rate (every
+        // dispense has to succeed, so each round is the same work)
+        dispenseConcurrently(medicineId);
+        double seconds = Double.MAX_VALUE;
+        for (int round = 0; round < MEASURED_ROUNDS; round++) {
+            seconds = Math.min(seconds, dispenseConcurrently(medicineId));
+        }
+
+        double perSecond = THREADS * DISPENSES_PER_THREAD / seconds;
+        assertEquals(0, quantityOf(medicineId));
+        assertEquals((long) stock, jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM stock_movements WHERE medicine_id = ?", Long.class, medicineId));
+        assertTrue(perSecond >= MIN_DISPENSES_PER_SECOND, "only " + Math.round(perSecond) + " dispenses/s");
+    }
+
+    @Test
+    void adjustmentsKeepLotsInStepWithTheTotal() {
+        LocalDate today = LocalDate.now();
+        Medicine medicine = medicineRepository.save(medicine("Adjusted SKU", 100, today.plusDays(180)));
+        Long medicineId = medicine.getId();
+        Long expiredLot = lot(medicine, today.minusDays(1), 30);
+        Long sellableLot = lot(medicine, today.plusDays(60), 70);
+        allocator.load(stockLotRepository.findOpenLots());
+
+        // Counted down: the difference comes off the lots soonest expiry first
+        assertTrue(adjust(medicineId, -40).getApplied());
+        Map<Long, Integer> lots = lotQuantities(medicineId);
+        assertEquals(0, lots.get(expiredLot));
+        assertEquals(60, lots.get(sellableLot));
+
+        // Units found on the shelf: they get a lot dated by the medicine's expiry
+        assertTrue(adjust(medicineId, 25).getApplied());
+        assertEquals(85, quantityOf(medicineId));
+        List<StockLotDTO> open = stockLotRepository.findLotsOfMedicine(medicineId).stream()
+                .filter(lot -> lot.getQuantity() > 0)
+                .toList();
+        assertEquals(85, open.stream().mapToInt(StockLotDTO::getQuantity).sum());
+        assertTrue(open.stream().anyMatch(lot -> lot.getQuantity() == 25
+                && lot.getExpiryDate().equals(today.plusDays(180))));
+
+        // Decided on the locked row: nothing applied, nothing moved
+        StockAdjustmentResultDTO rejected = adjust(medicineId, -1000);
+        assertFalse(rejected.getApplied());
+        assertEquals(85, rejected.getPreviousQuantity());
+        assertEquals(85, quantityOf(medicineId));
+
+        // The reloaded queue covers the whole total from lots
+        List<StockAllocationDTO> allocations = stockLotService.dispense(medicineId, 85);
+        assertEquals(85, allocations.stream().mapToInt(StockAllocationDTO::getQuantity).sum());
+        assertTrue(allocations.stream().allMatch(allocation -> allocation.getLotId() != null));
+        assertEquals(0, quantityOf(medicineId));
+    }
+
+    // One unit per dispense, every thread at once; returns the seconds until the last one committed
+    private double dispenseConcurrently(Long medicineId) throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            futures.add(pool.submit(() -> {
+                start.await();
+                for (int i = 0; i < DISPENSES_PER_THREAD; i++) {
+                    assertEquals(1, stockLotService.dispense(medicineId, 1).size());
+                }
+                return null;
+            }));
+        }
+
+        long started = System.nanoTime();
+        start.countDown();
+        try {
+            for (Future<?> future : futures) future.get(120, TimeUnit.SECONDS);
+        } finally {
+            pool.shutdownNow();
+        }
+        return (System.nanoTime() - started) / 1e9;
+    }
+
+    private StockAdjustmentResultDTO adjust(Long medicineId, int delta) {
+        StockAdjustmentRequestDTO.Item item = new StockAdjustmentRequestDTO.Item();
+        item.setMedicineId(medicineId);
+        item.setQuantity(delta);
+        StockAdjustmentRequestDTO request = new StockAdjustmentRequestDTO();
+        request.setItems(List.of(item));
+        return medicineService.adjustStock(request).get(0);
+    }
+
+    private int quantityOf(Long medicineId) {
+        return medicineRepository.findSummaryById(medicineId)
+                .orElseThrow()
+                .getQuantity();
+    }
+
+    private Map<Long, Integer> lotQuantities(Long medicineId) {
+        return stockLotRepository.findLotsOfMedicine(medicineId).stream()
+                .collect(Collectors.toMap(StockLotDTO::getId, StockLotDTO::getQuantity));
+    }
+
+    private Long lot(Medicine medicine, LocalDate expiryDate, int quantity) {
+        StockLot lot = new StockLot();
+        lot.setMedicine(medicine);
+        lot.setBatchNumber("B-" + expiryDate);
+        lot.setExpiryDate(expiryDate);
+        lot.setQuantity(quantity);
+        Long id = stockLotRepository.save(lot).getId();
+        assertNotNull(id);
+        return id;
+    }
+
+    private static Medicine medicine(String name, int quantity, LocalDate expiryDate) {
+        Medicine medicine = new Medicine();
+        medicine.setMedicineName(name);
+        medicine.setQuantity(quantity);
+        medicine.setPrice(10.0);
+        medicine.setExpiryDate(expiryDate);
+        medicine.setIsDeleted(false);
+        return medicine;
+    }
+}
@@ -0,0 +1,176 @@
+package com.company.admin.admin_backend.Service;
+
+import com.company.admin.admin_backend.dto.MedicineDTO;
+import com.company.admin.admin_backend.entity.Medicine;
+import com.company.admin.admin_backend.entity.StockMovementType;
+import com.company.admin.admin_backend.event.MedicineCatalogLoadedEvent;
+import com.company.admin.admin_backend.event.MedicineChangedEvent;
+import com.company.admin.admin_backend.repository.MedicineRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.boot.jdbc.test.autoconfigure.AutoConfigureTestDatabase;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Ledger snapshots against a real database (H2 in MySQL mode): a movement that commits late
+ * still lands in a snapshot, and snapshots that share a timestamp are not added up twice.
+ */
+@DataJpaTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:stock_ledger;MODE=MySQL;LOCK_TIMEOUT=10000;DB_CLOSE_DELAY=-1",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.show-sql=false"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import({MedicineChangeSequence.class, StockLedgerService.class})
+class StockLedgerServiceTest {
+
+    // Between the stock lot reconcile and the change sequence stamp
+    private static final int SLOW_COMMIT_ORDER = 1000;
+
+    @Autowired
+    private StockLedgerService stockLedgerService;
+
+    @Autowired
+    private MedicineChangeSequence changeSequence;
+
+    @Autowired
+    private MedicineRepository medicineRepository;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void resetLedger() {
+        changeSequence.onCatalogLoaded(new MedicineCatalogLoadedEvent(List.of()));
+        jdbcTemplate.update("DELETE FROM stock_snapshots");
+        jdbcTemplate.update("DELETE FROM stock_movements");
+        medicineRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void movementCommittingAfterASnapshotIsRolledIntoTheNextOne() throws Exception {
+        Long slow = medicineRepository.save(medicine("Slow")).getId();
+        Long fast = medicineRepository.save(medicine("Fast")).getId();
+        stockLedgerService.onCatalogLoaded(new MedicineCatalogLoadedEvent(List.of()));
+
+        // The slow transaction moves stock first but is still committing when the snapshot runs
+        CountDownLatch committing = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<Void> slowCommit = CompletableFuture.runAsync(() ->
+                transactionTemplate.executeWithoutResult(status -> {
+                    move(slow, 10, 15);
+                    TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                        @Override
+                        public int getOrder() {
+                            return SLOW_COMMIT_ORDER;
+                        }
+
+                        @Override
+                        public void beforeCommit(boolean readOnly) {
+                            committing.countDown();
+                            await(release);
+                        }
+                    });
+                }));
+        assertTrue(committing.await(10, TimeUnit.SECONDS));
+
+        transactionTemplate.executeWithoutResult(status -> move(fast, 10, 7));
+        stockLedgerService.takeSnapshots();
+
+        release.countDown();
+        slowCommit.get(10, TimeUnit.SECONDS);
+        transactionTemplate.executeWithoutResult(status -> move(slow, 15, 16));
+        stockLedgerService.takeSnapshots();
+
+        assertEquals(16, latestSnapshot(slow));
+        assertEquals(16, stockLedgerService.getStockAsOf(slow, LocalDateTime.now()));
+        assertEquals(7, stockLedgerService.getStockAsOf(fast, LocalDateTime.now()));
+    }
+
+    @Test
+    void snapshotsTakenInTheSameInstantAreNotCountedTwice() {
+        Long id = medicineRepository.save(medicine("Same instant")).getId();
+        stockLedgerService.onCatalogLoaded(new MedicineCatalogLoadedEvent(List.of()));
+
+        transactionTemplate.executeWithoutResult(status -> move(id, 10, 12));
+        stockLedgerService.takeSnapshots();
+        jdbcTemplate.update("UPDATE stock_snapshots SET taken_at = ?",
+                Timestamp.valueOf(LocalDateTime.now().minusMinutes(1)));
+
+        transactionTemplate.executeWithoutResult(status -> move(id, 12, 15));
+        stockLedgerService.takeSnapshots();
+
+        assertEquals(3, jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM stock_snapshots WHERE medicine_id = ?", Integer.class, id));
+        assertEquals(15, latestSnapshot(id));
+        assertEquals(15, stockLedgerService.getStockAsOf(id, LocalDateTime.now()));
+    }
+
+    private void move(Long id, int before, int after) {
+        jdbcTemplate.update("UPDATE medicines SET quantity = ? WHERE id = ?", after, id);
+        eventPublisher.publishEvent(new MedicineChangedEvent(
+                id, quantity(id, before), quantity(id, after), StockMovementType.RECEIPT));
+    }
+
+    private int latestSnapshot(Long id) {
+        return jdbcTemplate.queryForObject(
+                "SELECT quantity FROM stock_snapshots WHERE medicine_id = ? ORDER BY id DESC LIMIT 1",
+                Integer.class, id);
+    }
+
+    private static MedicineDTO quantity(Long id, int quantity) {
+        MedicineDTO medicine = new MedicineDTO();
+        medicine.setId(id);
+        medicine.setQuantity(quantity);
+        return medicine;
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            assertTrue(latch.await(10, TimeUnit.SECONDS));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static Medicine medicine(String name) {
+        Medicine medicine = new Medicine();
+        medicine.setMedicineName(name);
+        medicine.setQuantity(10);
+        medicine.setPrice(10.0);
+        medicine.setExpiryDate(LocalDate.now().plusYears(1));
+        medicine.setIsDeleted(false);
+        return medicine;
+    }
+}